@@ -0,0 +1,151 @@
+package benchmarks;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+// Small benchmark harness. Every benchmark runs a number of warmup and measurement iterations of fixed duration, and
+// the average time per operation is reported for each measurement iteration. Results are printed as a table and can be
+// written as JSON in the layout of JMH result files, so they can be compared between runs.
+//
+// Usage: benchmarks.Harness [-o results.json] [-wi warmupIterations] [-i iterations] [-t millisPerIteration] [regex]
+public class Harness {
+    private final Map<String, Supplier<Object>> benchmarks = new LinkedHashMap<>();
+    // threads the engine uses for a benchmark, written to the results as its thread count
+    private final Map<String, Integer> threads = new LinkedHashMap<>();
+    // results are folded in here, so the JIT cannot remove the benchmarked work
+    private static volatile int sink;
+    private static final long BATCH_NANOS = 1_000_000L;
+
+    void add(String name, Supplier<Object> operation) {
+        add(name, 1, operation);
+    }
+
+    void add(String name, int threads, Supplier<Object> operation) {
+        if (benchmarks.containsKey(name)) throw new IllegalArgumentException("Duplicate benchmark " + name);
+        benchmarks.put(name, operation);
+        this.threads.put(name, threads);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static void main(String[] args) throws IOException {
+        String output = null;
+        int warmupIterations = 5, iterations = 10, millis = 1000;
+        Pattern filter = Pattern.compile(".*");
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-o":
+                    output = args[++i];
+                    break;
+                case "-wi":
+                    warmupIterations = Integer.parseInt(args[++i]);
+                    break;
+                case "-i":
+                    iterations = Integer.parseInt(args[++i]);
+                    break;
+                case "-t":
+                    millis = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    filter = Pattern.compile(args[i]);
+            }
+        }
+
+        Harness harness = new Harness();
+        ZoneBenchmarks.register(harness);
+        SuccessorBenchmarks.register(harness);
+        RefinementBenchmarks.register(harness);
+
+        JSONArray results = new JSONArray();
+        for (Map.Entry<String, Supplier<Object>> benchmark : harness.benchmarks.entrySet()) {
+            if (!filter.matcher(benchmark.getKey()).find()) continue;
+
+            for (int i = 0; i < warmupIterations; i++) {
+                runIteration(benchmark.getValue(), millis);
+            }
+
+            List<Double> scores = new ArrayList<>();
+            for (int i = 0; i < iterations; i++) {
+                scores.add(runIteration(benchmark.getValue(), millis));
+            }
+
+            JSONObject result = toResult(benchmark.getKey(), harness.threads.get(benchmark.getKey()), scores,
+                    warmupIterations, millis);
+            System.out.printf("%-55s %15.1f ns/op  +- %.1f%n", benchmark.getKey(),
+                    ((JSONObject) result.get("primaryMetric")).get("score"),
+                    ((JSONObject) result.get("primaryMetric")).get("scoreError"));
+            results.add(result);
+        }
+
+        if (output != null) {
+            try (Writer writer = new FileWriter(output)) {
+                results.writeJSONString(writer);
+            }
+        }
+    }
+
+    // Runs the operation until the given time has passed, returns the average time per operation in nanoseconds.
+    // Operations run in batches and the clock is only read after a batch. Batches double until one takes about
+    // BATCH_NANOS, so reading the clock does not show up in the time of short operations.
+    private static double runIteration(Supplier<Object> operation, int millis) {
+        long deadline = System.nanoTime() + millis * 1_000_000L;
+        long start = System.nanoTime(), end = start;
+        long operations = 0, batch = 1;
+        int hash = 0;
+
+        do {
+            long batchStart = end;
+            for (long k = 0; k < batch; k++) {
+                Object result = operation.get();
+                hash += result == null ? 0 : System.identityHashCode(result);
+            }
+            operations += batch;
+            end = System.nanoTime();
+
+            if (end - batchStart < BATCH_NANOS) batch *= 2;
+        } while (end < deadline);
+
+        sink += hash;
+        return (double) (end - start) / operations;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JSONObject toResult(String name, int threads, List<Double> scores, int warmupIterations, int millis) {
+        double mean = scores.stream().mapToDouble(d -> d).average().orElse(0);
+        double variance = scores.stream().mapToDouble(d -> (d - mean) * (d - mean)).sum() / Math.max(1, scores.size() - 1);
+        // 99.9% confidence interval, assuming normally distributed iteration scores
+        double error = 3.29 * Math.sqrt(variance / scores.size());
+
+        JSONObject metric = new JSONObject();
+        metric.put("score", mean);
+        metric.put("scoreError", error);
+        metric.put("scoreUnit", "ns/op");
+        JSONArray iteration = new JSONArray();
+        iteration.addAll(scores);
+        JSONArray rawData = new JSONArray();
+        rawData.add(iteration);
+        metric.put("rawData", rawData);
+
+        JSONObject result = new JSONObject();
+        result.put("benchmark", name);
+        result.put("mode", "avgt");
+        result.put("threads", threads);
+        result.put("warmupIterations", warmupIterations);
+        result.put("measurementIterations", scores.size());
+        result.put("measurementTime", millis + " ms");
+        result.put("jdkVersion", System.getProperty("java.version"));
+        result.put("dbmBackend", System.getProperty("dbm.backend", "native"));
+        result.put("primaryMetric", metric);
+        return result;
+    }
+}
@@ -0,0 +1,47 @@
+package benchmarks;
+
+import logic.SimpleTransitionSystem;
+import logic.TransitionSystem;
+import models.Automaton;
+import parser.JSONParser;
+import parser.XMLParser;
+
+// The sample models the benchmarks run on, paths are relative to the repository root
+class Models {
+    static final String UNIVERSITY = "./samples/json/EcdarUniversity/";
+    static final String BIG_REFINEMENT = "./samples/json/BigRefinement/";
+    static final String DELAY_REFINEMENT = "./samples/xml/delayRefinement.xml";
+
+    // Administration, Machine, Researcher, Spec, Machine3, Adm2, HalfAdm1, HalfAdm2
+    static Automaton[] university() {
+        return JSONParser.parse(UNIVERSITY, new String[]{"GlobalDeclarations.json",
+                "Components/Administration.json",
+                "Components/Machine.json",
+                "Components/Researcher.json",
+                "Components/Spec.json",
+                "Components/Machine3.json",
+                "Components/Adm2.json",
+                "Components/HalfAdm1.json",
+                "Components/HalfAdm2.json"}, true);
+    }
+
+    // Comp1, Ref1
+    static Automaton[] bigRefinement() {
+        return JSONParser.parse(BIG_REFINEMENT, new String[]{"GlobalDeclarations.json",
+                "Components/Comp1.json",
+                "Components/Ref1.json"}, true);
+    }
+
+    static Automaton[] delayRefinement() {
+        return XMLParser.parse(DELAY_REFINEMENT, true);
+    }
+
+    static TransitionSystem system(Automaton automaton) {
+        return new SimpleTransitionSystem(automaton);
+    }
+
+    // a system with fresh clocks, to be used on the other side of a refinement
+    static TransitionSystem copy(Automaton automaton) {
+        return new SimpleTransitionSystem(new Automaton(automaton));
+    }
+}
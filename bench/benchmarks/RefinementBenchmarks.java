@@ -0,0 +1,53 @@
+package benchmarks;
+
+import logic.Composition;
+import logic.Conjunction;
+import logic.Refinement;
+import logic.TransitionSystem;
+import models.Automaton;
+
+import java.util.function.Supplier;
+
+// Complete refinement checks on the sample models, including the consistency checks of the preconditions.
+// Like queries, the checks run on -Drefinement.threads threads when more than one is set.
+class RefinementBenchmarks {
+
+    static void register(Harness harness) {
+        Automaton[] big = Models.bigRefinement();
+        TransitionSystem comp1 = Models.system(big[0]);
+        TransitionSystem comp1Copy = Models.copy(big[0]);
+        TransitionSystem ref1 = Models.system(big[1]);
+        TransitionSystem ref1Copy = Models.copy(big[1]);
+
+        add(harness, "refinement.bigRefinement.comp1Self", () -> new Refinement(comp1, comp1Copy));
+        add(harness, "refinement.bigRefinement.ref1Self", () -> new Refinement(ref1, ref1Copy));
+        add(harness, "refinement.bigRefinement.comp1NotRef1", () -> new Refinement(comp1, ref1));
+
+        Automaton[] university = Models.university();
+        TransitionSystem adm = Models.system(university[0]);
+        TransitionSystem machine = Models.system(university[1]);
+        TransitionSystem researcher = Models.system(university[2]);
+        TransitionSystem spec = Models.system(university[3]);
+        TransitionSystem adm2 = Models.system(university[5]);
+        TransitionSystem half1 = Models.system(university[6]);
+        TransitionSystem half2 = Models.system(university[7]);
+
+        add(harness, "refinement.university.compositionRefinesSpec", () -> new Refinement(
+                new Composition(new TransitionSystem[]{adm, machine, researcher}), spec));
+        add(harness, "refinement.university.conjunctionRefinesAdm2", () -> new Refinement(
+                new Conjunction(new TransitionSystem[]{half1, half2}), adm2));
+
+        Automaton[] delay = Models.delayRefinement();
+        add(harness, "refinement.delayRefinement.t1t2RefinesT3", () -> new Refinement(
+                new Composition(new TransitionSystem[]{Models.system(delay[0]), Models.system(delay[1])}),
+                Models.system(delay[2])));
+        add(harness, "refinement.delayRefinement.c1RefinesC2", () -> new Refinement(
+                Models.system(delay[3]), Models.system(delay[4])));
+    }
+
+    private static void add(Harness harness, String name, Supplier<Refinement> refinement) {
+        int threads = Math.max(1, Integer.getInteger(Refinement.THREADS_PROPERTY, 1));
+
+        harness.add(name, threads, () -> threads > 1 ? refinement.get().checkParallel(threads) : refinement.get().check());
+    }
+}
@@ -0,0 +1,67 @@
+package benchmarks;
+
+import logic.Composition;
+import logic.Conjunction;
+import logic.Quotient;
+import logic.TransitionSystem;
+import models.Automaton;
+import models.Channel;
+import models.State;
+import models.Transition;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Successor generation: every operation computes the transitions of a fixed set of states for all actions.
+// The states are the ones reachable from the initial state in a few steps.
+class SuccessorBenchmarks {
+    private static final int DEPTH = 3;
+
+    static void register(Harness harness) {
+        Automaton[] university = Models.university();
+        TransitionSystem adm = Models.system(university[0]);
+        TransitionSystem machine = Models.system(university[1]);
+        TransitionSystem researcher = Models.system(university[2]);
+        TransitionSystem spec = Models.system(university[3]);
+
+        add(harness, "successors.simple", adm);
+        add(harness, "successors.composition", new Composition(new TransitionSystem[]{adm, machine, researcher}));
+        add(harness, "successors.conjunction", new Conjunction(new TransitionSystem[]{
+                Models.system(university[6]), Models.system(university[7])}));
+        add(harness, "successors.quotient", new Quotient(spec, machine));
+    }
+
+    private static void add(Harness harness, String name, TransitionSystem ts) {
+        List<State> states = reachableStates(ts);
+        harness.add(name, () -> {
+            int transitions = 0;
+            for (State state : states) {
+                for (Channel action : ts.getActions()) {
+                    transitions += ts.getNextTransitions(state, action).size();
+                }
+            }
+            return transitions;
+        });
+    }
+
+    private static List<State> reachableStates(TransitionSystem ts) {
+        List<State> states = new ArrayList<>();
+        List<State> frontier = new ArrayList<>();
+        frontier.add(ts.getInitialState());
+
+        for (int depth = 0; depth < DEPTH && !frontier.isEmpty(); depth++) {
+            states.addAll(frontier);
+            List<State> next = new ArrayList<>();
+            for (State state : frontier) {
+                for (Channel action : ts.getActions()) {
+                    for (Transition transition : ts.getNextTransitions(state, action)) {
+                        next.add(transition.getTarget());
+                    }
+                }
+            }
+            frontier = next;
+        }
+
+        return states;
+    }
+}
@@ -0,0 +1,68 @@
+package benchmarks;
+
+import models.Federation;
+import models.Zone;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Zone and federation primitives. Operations that change the zone work on a fresh copy of it, so the copy is part of
+// the measured time, see zone.copy for its cost.
+class ZoneBenchmarks {
+    private static final int DIM = 6;
+
+    static void register(Harness harness) {
+        Zone zone = buildZone();
+        Zone bigger = new Zone(zone);
+        bigger.constrain1(1, 0, 100, false);
+        Zone smaller = new Zone(zone);
+        smaller.constrain1(2, 0, 3, true);
+
+        int[] maxBounds = new int[]{0, 4, 4, 8, 8, 10};
+
+        harness.add("zone.copy", () -> new Zone(zone));
+        harness.add("zone.delay", () -> {
+            Zone z = new Zone(zone);
+            z.delay();
+            return z;
+        });
+        harness.add("zone.constrain1", () -> {
+            Zone z = new Zone(zone);
+            z.constrain1(3, 0, 6, false);
+            return z;
+        });
+        harness.add("zone.isSubset", () -> smaller.isSubset(zone));
+        harness.add("zone.extrapolateMaxBounds", () -> {
+            Zone z = new Zone(bigger);
+            z.extrapolateMaxBounds(maxBounds);
+            return z;
+        });
+
+        Federation whole = new Federation(Arrays.asList(zone, bigger));
+        Federation parts = new Federation(splitZone(zone));
+        harness.add("federation.fedMinusFed", () -> Federation.fedMinusFed(whole, parts).size());
+    }
+
+    // x1 <= 10, x2 <= 7, x3 - x1 <= 2, x4 >= 1, delayed
+    private static Zone buildZone() {
+        Zone zone = new Zone(DIM, true);
+        zone.constrain1(1, 0, 10, false);
+        zone.constrain1(2, 0, 7, false);
+        zone.constrain1(3, 1, 2, false);
+        zone.constrain1(0, 4, -1, false);
+        return zone;
+    }
+
+    // slices of the zone along x1 with some overlap, as produced by the guards of several edges
+    private static List<Zone> splitZone(Zone zone) {
+        List<Zone> parts = new ArrayList<>();
+        for (int i = 0; i < 10; i += 2) {
+            Zone part = new Zone(zone);
+            part.constrain1(0, 1, -i, false);
+            part.constrain1(1, 0, i + 3, true);
+            parts.add(part);
+        }
+        return parts;
+    }
+}
@@ -2,6 +2,10 @@ package connection;
 
 import logic.Controller;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
 import java.util.List;
 import java.util.Scanner;
 
@@ -9,7 +13,19 @@ class Main {
     static final String VERSION = "1.0";
     static final String ENGINE_NAME = "JECDAR";
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        // -server serves JSON requests with ids on stdin, -server <port> on a local socket
+        if (args.length > 0 && args[0].equals("-server")) {
+            if (args.length > 1) Server.listen(Integer.parseInt(args[1]));
+            else {
+                // stdout only carries responses, anything else printed while serving goes to stderr
+                PrintStream responses = System.out;
+                System.setOut(System.err);
+                Server.serve(new InputStreamReader(System.in), new OutputStreamWriter(responses));
+            }
+            return;
+        }
+
         Scanner console = new Scanner(System.in);
         while (console.hasNextLine()) {
             System.out.println(chooseCommand(console.nextLine()));
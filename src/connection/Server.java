@@ -0,0 +1,67 @@
+package connection;
+
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+// Long running mode of the engine. Every request is a JSON object on one line, {"id": ..., "command": "-rq ..."},
+// where the command is anything accepted on the command line, and gets a one line answer {"id": ..., "result": ...}.
+// Parsed projects stay cached between requests, so only components changed on disk are parsed again.
+class Server {
+
+    // serves requests read from in until it is closed
+    static void serve(Reader in, Writer out) throws IOException {
+        BufferedReader reader = new BufferedReader(in);
+        PrintWriter writer = new PrintWriter(out, true);
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.trim().isEmpty()) continue;
+            writer.println(handle(line));
+        }
+    }
+
+    // serves every connection to the port on the loopback interface on a thread of its own
+    static void listen(int port) throws IOException {
+        try (ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            while (true) {
+                Socket socket = server.accept();
+                Thread thread = new Thread(() -> {
+                    try (Socket s = socket) {
+                        serve(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8),
+                                new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8));
+                    } catch (IOException e) {
+                        System.err.println("Connection closed: " + e.getMessage());
+                    }
+                });
+                thread.setDaemon(true);
+                thread.start();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static String handle(String request) {
+        JSONObject response = new JSONObject();
+
+        try {
+            Object parsed = new JSONParser().parse(request);
+            if (!(parsed instanceof JSONObject) || !(((JSONObject) parsed).get("command") instanceof String))
+                throw new IllegalArgumentException("Request must be an object with a command");
+
+            JSONObject obj = (JSONObject) parsed;
+            response.put("id", obj.get("id"));
+            response.put("result", Main.chooseCommand((String) obj.get("command")));
+        } catch (ParseException | IllegalArgumentException e) {
+            response.put("error", "Invalid request: " + (e.getMessage() != null ? e.getMessage() : request));
+        }
+
+        return response.toJSONString();
+    }
+}
@@ -1,12 +1,77 @@
 package global;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 
+// Loads the native DBM library. Safe to call any number of times from any thread, the library is only loaded once.
+// The library is looked up in this order:
+// 1. the file given by the system property "dbm.library" (-Ddbm.library=/path/to/libDBM.so)
+// 2. the classpath resource named after the platform, e.g. /libDBM.so or /libDBM.dylib
+// 3. java.library.path
 public class LibLoader {
+    public static final String LIBRARY_PROPERTY = "dbm.library";
+    private static final String LIBRARY_NAME = "DBM";
+
+    private static volatile boolean loaded = false;
 
     public static void load() {
-        String fileName = "src/" + System.mapLibraryName("DBM");
-        File lib = new File(fileName);
-        System.load(lib.getAbsolutePath());
+        if (loaded) return;
+
+        synchronized (LibLoader.class) {
+            if (loaded) return;
+
+            loadLibrary();
+            loaded = true;
+        }
+    }
+
+    private static void loadLibrary() {
+        String fileName = System.mapLibraryName(LIBRARY_NAME);
+
+        String path = System.getProperty(LIBRARY_PROPERTY);
+        if (path != null) {
+            File lib = new File(path);
+            if (!lib.isFile())
+                throw new UnsatisfiedLinkError("DBM library given by -D" + LIBRARY_PROPERTY + " does not exist: " + lib.getAbsolutePath());
+
+            System.load(lib.getAbsolutePath());
+            return;
+        }
+
+        URL resource = LibLoader.class.getResource("/" + fileName);
+        if (resource != null) {
+            System.load(resourceToFile(resource, fileName).getAbsolutePath());
+            return;
+        }
+
+        try {
+            System.loadLibrary(LIBRARY_NAME);
+        } catch (UnsatisfiedLinkError e) {
+            throw new UnsatisfiedLinkError("Could not find the DBM library " + fileName + ". Set -D" + LIBRARY_PROPERTY +
+                    "=<path>, put it on the classpath or in java.library.path (" + e.getMessage() + ")");
+        }
+    }
+
+    // A library inside a jar cannot be loaded directly, so it is copied to a temporary file first
+    private static File resourceToFile(URL resource, String fileName) {
+        try {
+            if ("file".equals(resource.getProtocol()))
+                return new File(resource.toURI());
+
+            Path temp = Files.createTempFile(fileName, null);
+            temp.toFile().deleteOnExit();
+            try (InputStream in = resource.openStream()) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return temp.toFile();
+        } catch (IOException | URISyntaxException e) {
+            throw new UnsatisfiedLinkError("Could not extract the DBM library from " + resource + ": " + e.getMessage());
+        }
     }
 }
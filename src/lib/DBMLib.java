@@ -1,33 +1,46 @@
 package lib;
 
+import global.LibLoader;
+
 public class DBMLib {
 
+    static {
+        LibLoader.load();
+    }
+
     // here you must define every method you want to use from the DBM library
+    // methods taking a dbm modify the given array in place, nothing is copied or allocated on the native side
     public static native int boundbool2raw(int bound, boolean isStrict);
 
     public static native int raw2bound(int raw);
 
-    public static native int[] dbm_init(int[] dbm, int dim);
+    public static native void dbm_init(int[] dbm, int dim);
 
-    public static native int[] dbm_zero(int[] dbm, int dim);
+    public static native void dbm_zero(int[] dbm, int dim);
 
-    public static native int[] dbm_constrainBound(int[] dbm, int dim, int i, int j, int constraint, boolean strict);
+    // returns false if the dbm became empty
+    public static native boolean dbm_constrainBound(int[] dbm, int dim, int i, int j, int constraint, boolean strict);
 
-    public static native int[] dbm_constrainRaw(int[] dbm, int dim, int i, int j, int raw);
+    // returns false if the dbm became empty
+    public static native boolean dbm_constrainRaw(int[] dbm, int dim, int i, int j, int raw);
 
-    public static native int[] dbm_up(int[] dbm, int dim);
+    // constraints holds (i, j, raw) triples, n is the number of ints used, returns false if the dbm is or became empty
+    public static native boolean dbm_constrainN(int[] dbm, int dim, int[] constraints, int n);
+
+    public static native void dbm_up(int[] dbm, int dim);
 
     public static native boolean dbm_isSubsetEq(int[] dbm1, int[] dbm2, int dim);
 
-    public static native int[] dbm_updateValue(int[] dbm, int dim, int clockIndex, int value);
+    public static native void dbm_updateValue(int[] dbm, int dim, int clockIndex, int value);
 
     public static native boolean dbm_isValid(int[] dbm, int dim);
 
+    // dbm1 becomes the intersection of dbm1 and dbm2, returns false if it is empty
     public static native boolean dbm_intersection(int[] dbm1, int[] dbm2, int dim);
 
-    public static native int[] dbm_freeAllDown(int[] dbm, int dim);
+    public static native void dbm_freeAllDown(int[] dbm, int dim);
 
-    public static native int[] dbm_freeDown(int[] dbm, int dim, int clockIndex);
+    public static native void dbm_freeDown(int[] dbm, int dim, int clockIndex);
 
     public static native boolean dbm_rawIsStrict(int raw);
 
@@ -39,5 +52,30 @@ public class DBMLib {
 
     public static native int[][] fed_minus_fed(int[][]fed1, int[][] fed2, int dim);
 
-    public static native int[] dbm_extrapolateMaxBounds(int[] dbm, int dim, int[] max);
+    public static native void dbm_extrapolateMaxBounds(int[] dbm, int dim, int[] max);
+
+    // federations kept in native memory and referred to by handle, see NativeFederation.
+    // Every handle returned by fed_create or fed_copy must be released with fed_free exactly once.
+    public static native long fed_create(int[][] dbms, int dim);
+
+    public static native long fed_copy(long fed);
+
+    public static native void fed_free(long fed);
+
+    // fed1 = fed1 - fed2
+    public static native void fed_subtract(long fed1, long fed2);
+
+    // fed1 = fed1 U fed2
+    public static native void fed_union(long fed1, long fed2);
+
+    // fed1 = fed1 & fed2
+    public static native void fed_intersect(long fed1, long fed2);
+
+    public static native boolean fed_isEmpty(long fed);
+
+    public static native boolean fed_isSubsetEq(long fed1, long fed2);
+
+    public static native int fed_size(long fed);
+
+    public static native int[][] fed_getDbms(long fed);
 }
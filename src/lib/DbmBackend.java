@@ -0,0 +1,60 @@
+package lib;
+
+// Operations on DBMs in the raw encoding of the UDBM library: a bound b with strictness s is stored as (b << 1) | s,
+// where s is 1 for <= and 0 for <. A dbm of dimension dim is a row-major int[dim * dim], index 0 is the reference clock.
+// Methods taking a dbm modify it in place unless they only answer a question about it.
+public interface DbmBackend {
+
+    // the encoding is fixed by the library, so constraints can be compiled without a backend at hand
+    static int rawBound(int bound, boolean isStrict) {
+        return (bound << 1) | (isStrict ? 0 : 1);
+    }
+
+    int boundbool2raw(int bound, boolean isStrict);
+
+    int raw2bound(int raw);
+
+    void dbm_init(int[] dbm, int dim);
+
+    void dbm_zero(int[] dbm, int dim);
+
+    // returns false if the dbm became empty
+    boolean dbm_constrainBound(int[] dbm, int dim, int i, int j, int constraint, boolean strict);
+
+    // returns false if the dbm became empty
+    boolean dbm_constrainRaw(int[] dbm, int dim, int i, int j, int raw);
+
+    // Applies the first n / 3 constraints, given as (i, j, raw) triples for x_i - x_j, and closes the dbm once.
+    // Returns false if the dbm is or became empty.
+    boolean dbm_constrainN(int[] dbm, int dim, int[] constraints, int n);
+
+    void dbm_up(int[] dbm, int dim);
+
+    boolean dbm_isSubsetEq(int[] dbm1, int[] dbm2, int dim);
+
+    void dbm_updateValue(int[] dbm, int dim, int clockIndex, int value);
+
+    boolean dbm_isValid(int[] dbm, int dim);
+
+    // dbm1 becomes the intersection of dbm1 and dbm2, returns false if it is empty
+    boolean dbm_intersection(int[] dbm1, int[] dbm2, int dim);
+
+    void dbm_freeAllDown(int[] dbm, int dim);
+
+    void dbm_freeDown(int[] dbm, int dim, int clockIndex);
+
+    boolean dbm_rawIsStrict(int raw);
+
+    int dbm_addRawRaw(int raw1, int raw2);
+
+    int[][] dbm_minus_dbm(int[] dbm1, int[] dbm2, int dim);
+
+    int[][] fed_minus_dbm(int[][] fed, int[] dbm, int dim);
+
+    int[][] fed_minus_fed(int[][] fed1, int[][] fed2, int dim);
+
+    // the federation keeps its own copies of the given dbms
+    DbmFederation fed_create(int[][] dbms, int dim);
+
+    void dbm_extrapolateMaxBounds(int[] dbm, int dim, int[] max);
+}
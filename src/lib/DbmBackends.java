@@ -0,0 +1,24 @@
+package lib;
+
+// Holds the DBM backend used by the engine. It is chosen once at startup with -Ddbm.backend=native|java,
+// the native UDBM library is used by default.
+public class DbmBackends {
+    public static final String BACKEND_PROPERTY = "dbm.backend";
+
+    private static final DbmBackend backend = create(System.getProperty(BACKEND_PROPERTY, "native"));
+
+    public static DbmBackend get() {
+        return backend;
+    }
+
+    public static DbmBackend create(String name) {
+        switch (name.toLowerCase()) {
+            case "native":
+                return new NativeDbmBackend();
+            case "java":
+                return new JavaDbmBackend();
+            default:
+                throw new IllegalArgumentException("Unknown DBM backend \"" + name + "\", expected native or java");
+        }
+    }
+}
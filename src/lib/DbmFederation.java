@@ -0,0 +1,28 @@
+package lib;
+
+// A federation (union of dbms) kept in the representation of the backend that created it, so chains of federation
+// operations do not convert every zone back and forth. Only federations of the same backend and dimension can be combined.
+public interface DbmFederation {
+
+    int getDimension();
+
+    int size();
+
+    DbmFederation copy();
+
+    // this = this - other
+    void subtract(DbmFederation other);
+
+    // this = this U other
+    void union(DbmFederation other);
+
+    // this = this & other
+    void intersect(DbmFederation other);
+
+    boolean isEmpty();
+
+    // exact inclusion test, this <= other
+    boolean isSubsetEq(DbmFederation other);
+
+    int[][] getDbms();
+}
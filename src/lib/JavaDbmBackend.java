@@ -0,0 +1,316 @@
+package lib;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Pure Java implementation of the DBM operations, working on the same raw encoding as the UDBM library.
+// Every operation keeps dbms closed, so results are the canonical dbms the native library computes.
+// An empty dbm is marked with a negative value at index 0, like the native library does.
+public class JavaDbmBackend implements DbmBackend {
+    static final int LE_ZERO = 1;
+    static final int LS_INFINITY = Integer.MAX_VALUE - 1;
+
+    public int boundbool2raw(int bound, boolean isStrict) {
+        return DbmBackend.rawBound(bound, isStrict);
+    }
+
+    public int raw2bound(int raw) {
+        return raw >> 1;
+    }
+
+    public boolean dbm_rawIsStrict(int raw) {
+        return (raw & 1) == 0;
+    }
+
+    public int dbm_addRawRaw(int raw1, int raw2) {
+        return addRaw(raw1, raw2);
+    }
+
+    static int addRaw(int raw1, int raw2) {
+        if (raw1 == LS_INFINITY || raw2 == LS_INFINITY) return LS_INFINITY;
+        return (raw1 + raw2) - ((raw1 | raw2) & 1);
+    }
+
+    public void dbm_init(int[] dbm, int dim) {
+        for (int i = 0; i < dim; i++) {
+            for (int j = 0; j < dim; j++) {
+                dbm[i * dim + j] = (i == j || i == 0) ? LE_ZERO : LS_INFINITY;
+            }
+        }
+    }
+
+    public void dbm_zero(int[] dbm, int dim) {
+        for (int i = 0; i < dim * dim; i++) {
+            dbm[i] = LE_ZERO;
+        }
+    }
+
+    public boolean dbm_constrainBound(int[] dbm, int dim, int i, int j, int constraint, boolean strict) {
+        return constrain(dbm, dim, i, j, boundbool2raw(constraint, strict));
+    }
+
+    public boolean dbm_constrainRaw(int[] dbm, int dim, int i, int j, int raw) {
+        return constrain(dbm, dim, i, j, raw);
+    }
+
+    // Tightens x_i - x_j to the given raw bound and restores closure in O(dim^2), as only paths through (i, j) can get shorter
+    static boolean constrain(int[] dbm, int dim, int i, int j, int raw) {
+        if (isEmpty(dbm)) return false;
+
+        // the constraint contradicts the bound on x_j - x_i
+        if (1 - raw >= dbm[j * dim + i]) {
+            dbm[0] = -1;
+            return false;
+        }
+
+        if (raw >= dbm[i * dim + j]) return true;
+
+        dbm[i * dim + j] = raw;
+
+        // column i and row j cannot change, so they can be read while the rest is updated
+        for (int k = 0; k < dim; k++) {
+            int dki = dbm[k * dim + i];
+            if (dki == LS_INFINITY) continue;
+            int dkij = addRaw(dki, raw);
+
+            for (int l = 0; l < dim; l++) {
+                int djl = dbm[j * dim + l];
+                if (djl == LS_INFINITY) continue;
+
+                int path = addRaw(dkij, djl);
+                if (path < dbm[k * dim + l]) dbm[k * dim + l] = path;
+            }
+        }
+
+        return true;
+    }
+
+    public boolean dbm_constrainN(int[] dbm, int dim, int[] constraints, int n) {
+        if (isEmpty(dbm)) return false;
+
+        // a single constraint is cheaper to close incrementally
+        if (n == 3) return constrain(dbm, dim, constraints[0], constraints[1], constraints[2]);
+
+        boolean changed = false;
+        for (int k = 0; k < n; k += 3) {
+            int index = constraints[k] * dim + constraints[k + 1];
+            if (constraints[k + 2] < dbm[index]) {
+                dbm[index] = constraints[k + 2];
+                changed = true;
+            }
+        }
+
+        return !changed || close(dbm, dim);
+    }
+
+    // Floyd-Warshall closure, returns false and marks the dbm empty if there is a negative cycle
+    static boolean close(int[] dbm, int dim) {
+        for (int k = 0; k < dim; k++) {
+            for (int i = 0; i < dim; i++) {
+                int dik = dbm[i * dim + k];
+                if (i == k || dik == LS_INFINITY) continue;
+
+                for (int j = 0; j < dim; j++) {
+                    int dkj = dbm[k * dim + j];
+                    if (dkj == LS_INFINITY) continue;
+
+                    int path = addRaw(dik, dkj);
+                    if (path < dbm[i * dim + j]) dbm[i * dim + j] = path;
+                }
+
+                if (dbm[i * dim + i] < LE_ZERO) {
+                    dbm[0] = -1;
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    static boolean isEmpty(int[] dbm) {
+        return dbm[0] < LE_ZERO;
+    }
+
+    public void dbm_up(int[] dbm, int dim) {
+        for (int i = 1; i < dim; i++) {
+            dbm[i * dim] = LS_INFINITY;
+        }
+    }
+
+    public boolean dbm_isSubsetEq(int[] dbm1, int[] dbm2, int dim) {
+        for (int i = 0; i < dim * dim; i++) {
+            if (dbm1[i] > dbm2[i]) return false;
+        }
+        return true;
+    }
+
+    public void dbm_updateValue(int[] dbm, int dim, int clockIndex, int value) {
+        int posBound = boundbool2raw(value, false);
+        int negBound = boundbool2raw(-value, false);
+
+        for (int i = 0; i < dim; i++) {
+            if (i == clockIndex) continue;
+
+            // x_k - x_i = value - x_i and x_i - x_k = x_i - value
+            dbm[clockIndex * dim + i] = addRaw(posBound, dbm[i]);
+            dbm[i * dim + clockIndex] = addRaw(negBound, dbm[i * dim]);
+        }
+    }
+
+    public boolean dbm_isValid(int[] dbm, int dim) {
+        if (dim == 0) return false;
+
+        for (int i = 0; i < dim; i++) {
+            // the diagonal must be <= 0 and all clocks must be non-negative
+            if (dbm[i * dim + i] != LE_ZERO || dbm[i] > LE_ZERO) return false;
+        }
+
+        // the dbm must be closed
+        for (int k = 0; k < dim; k++) {
+            for (int i = 0; i < dim; i++) {
+                int dik = dbm[i * dim + k];
+                if (dik == LS_INFINITY) continue;
+
+                for (int j = 0; j < dim; j++) {
+                    if (addRaw(dik, dbm[k * dim + j]) < dbm[i * dim + j]) return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    public boolean dbm_intersection(int[] dbm1, int[] dbm2, int dim) {
+        return intersect(dbm1, dbm2, dim);
+    }
+
+    static boolean intersect(int[] dbm1, int[] dbm2, int dim) {
+        boolean changed = false;
+
+        for (int i = 0; i < dim * dim; i++) {
+            if (dbm2[i] < dbm1[i]) {
+                dbm1[i] = dbm2[i];
+                changed = true;
+            }
+        }
+
+        if (!changed) return !isEmpty(dbm1);
+        return close(dbm1, dim);
+    }
+
+    public void dbm_freeAllDown(int[] dbm, int dim) {
+        for (int j = 1; j < dim; j++) {
+            dbm[j] = LE_ZERO;
+        }
+
+        for (int i = 1; i < dim; i++) {
+            for (int j = 1; j < dim; j++) {
+                if (i != j) dbm[i * dim + j] = dbm[i * dim];
+            }
+        }
+    }
+
+    public void dbm_freeDown(int[] dbm, int dim, int clockIndex) {
+        dbm[clockIndex] = LE_ZERO;
+
+        for (int i = 1; i < dim; i++) {
+            if (i != clockIndex) dbm[i * dim + clockIndex] = dbm[i * dim];
+        }
+    }
+
+    public void dbm_extrapolateMaxBounds(int[] dbm, int dim, int[] max) {
+        if (isEmpty(dbm)) return;
+
+        boolean changed = false;
+
+        for (int i = 0; i < dim; i++) {
+            for (int j = 0; j < dim; j++) {
+                if (i == j) continue;
+
+                int dij = dbm[i * dim + j];
+                if (dij == LS_INFINITY) continue;
+
+                if (dij > boundbool2raw(max[i], false)) {
+                    dbm[i * dim + j] = LS_INFINITY;
+                    changed = true;
+                } else if (dij < boundbool2raw(-max[j], true)) {
+                    dbm[i * dim + j] = boundbool2raw(-max[j], true);
+                    changed = true;
+                }
+            }
+        }
+
+        if (changed) close(dbm, dim);
+    }
+
+    public int[][] dbm_minus_dbm(int[] dbm1, int[] dbm2, int dim) {
+        List<int[]> result = new ArrayList<>();
+        subtract(dbm1, dbm2, dim, result);
+
+        return result.toArray(new int[0][]);
+    }
+
+    public int[][] fed_minus_dbm(int[][] fed, int[] dbm, int dim) {
+        List<int[]> result = new ArrayList<>();
+        for (int[] zone : fed) {
+            subtract(zone, dbm, dim, result);
+        }
+
+        return result.toArray(new int[0][]);
+    }
+
+    public int[][] fed_minus_fed(int[][] fed1, int[][] fed2, int dim) {
+        int[][] result = fed1;
+        for (int[] dbm : fed2) {
+            if (result.length == 0) break;
+            result = fed_minus_dbm(result, dbm, dim);
+        }
+
+        // never hand out the arrays of the argument
+        if (result == fed1) {
+            result = new int[fed1.length][];
+            for (int i = 0; i < fed1.length; i++) result[i] = fed1[i].clone();
+        }
+
+        return result;
+    }
+
+    public DbmFederation fed_create(int[][] dbms, int dim) {
+        return new JavaFederation(dbms, dim);
+    }
+
+    // Splits dbm1 along the constraints of the minimal graph of dbm2 that dbm1 does not already satisfy.
+    // The k-th piece satisfies the first k-1 constraints and violates the k-th one, so the pieces are disjoint.
+    static void subtract(int[] dbm1, int[] dbm2, int dim, List<int[]> result) {
+        if (isEmpty(dbm1)) return;
+
+        if (!haveIntersection(dbm1, dbm2, dim)) {
+            result.add(dbm1.clone());
+            return;
+        }
+
+        int[] constraints = MinGraph.reduce(dbm2, dim);
+        int[] rest = dbm1.clone();
+
+        for (int k = 0; k < constraints.length; k += 2) {
+            int index = constraints[k], raw = constraints[k + 1];
+            if (rest[index] <= raw) continue;
+
+            int i = index / dim, j = index % dim;
+            int[] piece = rest.clone();
+            if (constrain(piece, dim, j, i, 1 - raw)) result.add(piece);
+
+            if (!constrain(rest, dim, i, j, raw)) return;
+        }
+    }
+
+    // Two closed dbms are disjoint iff some pair of opposite bounds forms a negative cycle
+    private static boolean haveIntersection(int[] dbm1, int[] dbm2, int dim) {
+        for (int i = 0; i < dim; i++) {
+            for (int j = 0; j < dim; j++) {
+                if (addRaw(dbm1[i * dim + j], dbm2[j * dim + i]) < LE_ZERO) return false;
+            }
+        }
+        return true;
+    }
+}
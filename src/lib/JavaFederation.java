@@ -0,0 +1,82 @@
+package lib;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Federation of the pure Java backend, a plain list of disjoint or overlapping dbms
+class JavaFederation implements DbmFederation {
+    private List<int[]> dbms;
+    private final int dim;
+
+    JavaFederation(int[][] dbms, int dim) {
+        this.dbms = new ArrayList<>();
+        this.dim = dim;
+
+        for (int[] dbm : dbms) {
+            if (!JavaDbmBackend.isEmpty(dbm)) this.dbms.add(dbm.clone());
+        }
+    }
+
+    public int getDimension() {
+        return dim;
+    }
+
+    public int size() {
+        return dbms.size();
+    }
+
+    public DbmFederation copy() {
+        return new JavaFederation(dbms.toArray(new int[0][]), dim);
+    }
+
+    public void subtract(DbmFederation other) {
+        for (int[] dbm : dbmsOf(other)) {
+            if (dbms.isEmpty()) return;
+
+            List<int[]> result = new ArrayList<>();
+            for (int[] zone : dbms) {
+                JavaDbmBackend.subtract(zone, dbm, dim, result);
+            }
+            dbms = result;
+        }
+    }
+
+    public void union(DbmFederation other) {
+        for (int[] dbm : dbmsOf(other)) {
+            dbms.add(dbm.clone());
+        }
+    }
+
+    public void intersect(DbmFederation other) {
+        List<int[]> result = new ArrayList<>();
+        for (int[] zone : dbms) {
+            for (int[] dbm : dbmsOf(other)) {
+                int[] intersection = zone.clone();
+                if (JavaDbmBackend.intersect(intersection, dbm, dim)) result.add(intersection);
+            }
+        }
+        dbms = result;
+    }
+
+    public boolean isEmpty() {
+        return dbms.isEmpty();
+    }
+
+    public boolean isSubsetEq(DbmFederation other) {
+        DbmFederation rest = copy();
+        rest.subtract(other);
+        return rest.isEmpty();
+    }
+
+    public int[][] getDbms() {
+        int[][] result = new int[dbms.size()][];
+        for (int i = 0; i < dbms.size(); i++) result[i] = dbms.get(i).clone();
+        return result;
+    }
+
+    private List<int[]> dbmsOf(DbmFederation other) {
+        JavaFederation fed = (JavaFederation) other;
+        if (fed.dim != dim) throw new IllegalArgumentException("Federations must be of the same dimension");
+        return fed.dbms;
+    }
+}
@@ -0,0 +1,95 @@
+package lib;
+
+import java.util.Arrays;
+
+// Minimal constraint graph of a closed dbm, the Java counterpart of dbm/mingraph.h. The closure of the constraints
+// of the graph is the dbm again, and most zones need only O(n) of the n * n constraints.
+// Clocks on a cycle of weight zero are grouped, each group is kept as a cycle of its own and is represented by its
+// first clock. Between representatives only the constraints that are not implied by a path over a third
+// representative are kept.
+public class MinGraph {
+    private static final int LE_ZERO = JavaDbmBackend.LE_ZERO;
+    private static final int INF = JavaDbmBackend.LS_INFINITY;
+
+    private MinGraph() {
+    }
+
+    // Returns the constraints of the minimal graph of the closed, non-empty dbm as pairs of the index i * dim + j in
+    // the dbm and the raw bound of x_i - x_j
+    public static int[] reduce(int[] dbm, int dim) {
+        int[] rep = new int[dim];
+        int[] next = new int[dim];
+        Arrays.fill(next, -1);
+
+        // group the clocks on zero cycles, rep is the first clock of the group and next links the group in order
+        for (int i = 0; i < dim; i++) {
+            rep[i] = i;
+            for (int j = 0; j < i; j++) {
+                if (rep[j] == j && JavaDbmBackend.addRaw(dbm[i * dim + j], dbm[j * dim + i]) == LE_ZERO) {
+                    rep[i] = j;
+                    int last = j;
+                    while (next[last] != -1) last = next[last];
+                    next[last] = i;
+                    break;
+                }
+            }
+        }
+
+        int[] result = new int[2 * dim * dim];
+        int n = 0;
+
+        // every group with more than one clock is a cycle
+        for (int i = 0; i < dim; i++) {
+            if (rep[i] != i || next[i] == -1) continue;
+
+            int from = i;
+            while (next[from] != -1) {
+                n = add(result, n, from * dim + next[from], dbm);
+                from = next[from];
+            }
+            n = add(result, n, from * dim + i, dbm);
+        }
+
+        for (int i = 0; i < dim; i++) {
+            if (rep[i] != i) continue;
+
+            for (int j = 0; j < dim; j++) {
+                int dij = dbm[i * dim + j];
+                if (i == j || rep[j] != j || dij == INF || isImplied(dbm, dim, rep, i, j, dij)) continue;
+
+                n = add(result, n, i * dim + j, dbm);
+            }
+        }
+
+        return Arrays.copyOf(result, n);
+    }
+
+    private static boolean isImplied(int[] dbm, int dim, int[] rep, int i, int j, int dij) {
+        for (int k = 0; k < dim; k++) {
+            if (k == i || k == j || rep[k] != k) continue;
+
+            if (JavaDbmBackend.addRaw(dbm[i * dim + k], dbm[k * dim + j]) <= dij) return true;
+        }
+        return false;
+    }
+
+    private static int add(int[] result, int n, int index, int[] dbm) {
+        result[n] = index;
+        result[n + 1] = dbm[index];
+        return n + 2;
+    }
+
+    // Writes the closed dbm of count constraints, stored from offset on as returned by reduce, to dbm
+    public static void expand(int[] constraints, int offset, int count, int[] dbm, int dim) {
+        Arrays.fill(dbm, 0, dim * dim, INF);
+        for (int i = 0; i < dim; i++) {
+            dbm[i * dim + i] = LE_ZERO;
+        }
+
+        for (int k = 0; k < count; k++) {
+            dbm[constraints[offset + 2 * k]] = constraints[offset + 2 * k + 1];
+        }
+
+        JavaDbmBackend.close(dbm, dim);
+    }
+}
@@ -0,0 +1,89 @@
+package lib;
+
+// Backend calling the UDBM library through JNI
+public class NativeDbmBackend implements DbmBackend {
+
+    public int boundbool2raw(int bound, boolean isStrict) {
+        return DBMLib.boundbool2raw(bound, isStrict);
+    }
+
+    public int raw2bound(int raw) {
+        return DBMLib.raw2bound(raw);
+    }
+
+    public void dbm_init(int[] dbm, int dim) {
+        DBMLib.dbm_init(dbm, dim);
+    }
+
+    public void dbm_zero(int[] dbm, int dim) {
+        DBMLib.dbm_zero(dbm, dim);
+    }
+
+    public boolean dbm_constrainBound(int[] dbm, int dim, int i, int j, int constraint, boolean strict) {
+        return DBMLib.dbm_constrainBound(dbm, dim, i, j, constraint, strict);
+    }
+
+    public boolean dbm_constrainRaw(int[] dbm, int dim, int i, int j, int raw) {
+        return DBMLib.dbm_constrainRaw(dbm, dim, i, j, raw);
+    }
+
+    public boolean dbm_constrainN(int[] dbm, int dim, int[] constraints, int n) {
+        return DBMLib.dbm_constrainN(dbm, dim, constraints, n);
+    }
+
+    public void dbm_up(int[] dbm, int dim) {
+        DBMLib.dbm_up(dbm, dim);
+    }
+
+    public boolean dbm_isSubsetEq(int[] dbm1, int[] dbm2, int dim) {
+        return DBMLib.dbm_isSubsetEq(dbm1, dbm2, dim);
+    }
+
+    public void dbm_updateValue(int[] dbm, int dim, int clockIndex, int value) {
+        DBMLib.dbm_updateValue(dbm, dim, clockIndex, value);
+    }
+
+    public boolean dbm_isValid(int[] dbm, int dim) {
+        return DBMLib.dbm_isValid(dbm, dim);
+    }
+
+    public boolean dbm_intersection(int[] dbm1, int[] dbm2, int dim) {
+        return DBMLib.dbm_intersection(dbm1, dbm2, dim);
+    }
+
+    public void dbm_freeAllDown(int[] dbm, int dim) {
+        DBMLib.dbm_freeAllDown(dbm, dim);
+    }
+
+    public void dbm_freeDown(int[] dbm, int dim, int clockIndex) {
+        DBMLib.dbm_freeDown(dbm, dim, clockIndex);
+    }
+
+    public boolean dbm_rawIsStrict(int raw) {
+        return DBMLib.dbm_rawIsStrict(raw);
+    }
+
+    public int dbm_addRawRaw(int raw1, int raw2) {
+        return DBMLib.dbm_addRawRaw(raw1, raw2);
+    }
+
+    public int[][] dbm_minus_dbm(int[] dbm1, int[] dbm2, int dim) {
+        return DBMLib.dbm_minus_dbm(dbm1, dbm2, dim);
+    }
+
+    public int[][] fed_minus_dbm(int[][] fed, int[] dbm, int dim) {
+        return DBMLib.fed_minus_dbm(fed, dbm, dim);
+    }
+
+    public int[][] fed_minus_fed(int[][] fed1, int[][] fed2, int dim) {
+        return DBMLib.fed_minus_fed(fed1, fed2, dim);
+    }
+
+    public DbmFederation fed_create(int[][] dbms, int dim) {
+        return new NativeFederation(dbms, dim);
+    }
+
+    public void dbm_extrapolateMaxBounds(int[] dbm, int dim, int[] max) {
+        DBMLib.dbm_extrapolateMaxBounds(dbm, dim, max);
+    }
+}
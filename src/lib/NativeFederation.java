@@ -0,0 +1,95 @@
+package lib;
+
+import java.lang.ref.Cleaner;
+import java.lang.ref.Reference;
+
+// Federation living in native memory as a dbm::fed_t, referred to by an opaque handle.
+// The fed_t is freed by a cleaner once this object becomes unreachable.
+class NativeFederation implements DbmFederation {
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private final long handle;
+    private final int dim;
+
+    NativeFederation(int[][] dbms, int dim) {
+        this(DBMLib.fed_create(dbms, dim), dim);
+    }
+
+    private NativeFederation(long handle, int dim) {
+        this.handle = handle;
+        this.dim = dim;
+        CLEANER.register(this, new Release(handle));
+    }
+
+    public int getDimension() {
+        return dim;
+    }
+
+    public int size() {
+        int size = DBMLib.fed_size(handle);
+        Reference.reachabilityFence(this);
+        return size;
+    }
+
+    public DbmFederation copy() {
+        DbmFederation copy = new NativeFederation(DBMLib.fed_copy(handle), dim);
+        Reference.reachabilityFence(this);
+        return copy;
+    }
+
+    public void subtract(DbmFederation other) {
+        DBMLib.fed_subtract(handle, handleOf(other));
+        Reference.reachabilityFence(this);
+        Reference.reachabilityFence(other);
+    }
+
+    public void union(DbmFederation other) {
+        DBMLib.fed_union(handle, handleOf(other));
+        Reference.reachabilityFence(this);
+        Reference.reachabilityFence(other);
+    }
+
+    public void intersect(DbmFederation other) {
+        DBMLib.fed_intersect(handle, handleOf(other));
+        Reference.reachabilityFence(this);
+        Reference.reachabilityFence(other);
+    }
+
+    public boolean isEmpty() {
+        boolean isEmpty = DBMLib.fed_isEmpty(handle);
+        Reference.reachabilityFence(this);
+        return isEmpty;
+    }
+
+    public boolean isSubsetEq(DbmFederation other) {
+        boolean isSubset = DBMLib.fed_isSubsetEq(handle, handleOf(other));
+        Reference.reachabilityFence(this);
+        Reference.reachabilityFence(other);
+        return isSubset;
+    }
+
+    public int[][] getDbms() {
+        int[][] dbms = DBMLib.fed_getDbms(handle);
+        Reference.reachabilityFence(this);
+        return dbms;
+    }
+
+    private long handleOf(DbmFederation other) {
+        NativeFederation fed = (NativeFederation) other;
+        if (fed.dim != dim) throw new IllegalArgumentException("Federations must be of the same dimension");
+        return fed.handle;
+    }
+
+    // must not refer to the federation itself, otherwise it never becomes unreachable
+    private static class Release implements Runnable {
+        private final long handle;
+
+        Release(long handle) {
+            this.handle = handle;
+        }
+
+        public void run() {
+            DBMLib.fed_free(handle);
+        }
+    }
+}
@@ -4,29 +4,65 @@
 #include "../dbm/fed.h"
 #include <string.h>
 
+static_assert(sizeof(jint) == sizeof(raw_t), "jint and raw_t must have the same layout");
+
 namespace helper_functions
 {
-    raw_t* jintToC(JNIEnv *env, jintArray dbm, jsize len) {
-        // build array to pass to library
-        raw_t *t = new raw_t[len];
-        jint *arr = env->GetIntArrayElements(dbm, 0);
-        for (int i = 0; i < len; i++)
-            t[i] = arr[i];
-        return t;
-    }
+    // Pins a Java int[] and exposes it to the library as a raw_t*, so the library works directly on the
+    // Java array. No JNI calls are allowed while an array is pinned. Read-only arrays are released with
+    // JNI_ABORT, so nothing is written back.
+    // Pinning fails when the VM runs out of memory, get() is then NULL and the caller must return without using it.
+    // The OutOfMemoryError is thrown once no array of the thread is pinned anymore, as JNI calls are only allowed then.
+    class PinnedArray {
+    public:
+        PinnedArray(JNIEnv *env, jintArray arr, bool readOnly) : env(env), arr(arr), readOnly(readOnly) {
+            ptr = (raw_t*) env->GetPrimitiveArrayCritical(arr, NULL);
+            if (ptr != NULL) {
+                pinnedCount++;
+            } else {
+                outOfMemory = true;
+            }
+        }
+
+        ~PinnedArray() {
+            if (ptr != NULL) {
+                env->ReleasePrimitiveArrayCritical(arr, ptr, readOnly ? JNI_ABORT : 0);
+                pinnedCount--;
+            }
+
+            if (pinnedCount == 0 && outOfMemory) {
+                outOfMemory = false;
+                if (!env->ExceptionCheck()) {
+                    jclass error = env->FindClass("java/lang/OutOfMemoryError");
+                    if (error != NULL) env->ThrowNew(error, "Could not pin an array for the DBM library");
+                }
+            }
+        }
+
+        raw_t* get() const {
+            return ptr;
+        }
+
+    private:
+        JNIEnv *env;
+        jintArray arr;
+        bool readOnly;
+        raw_t *ptr;
+        // arrays pinned by the current thread, and whether pinning one of them failed
+        static thread_local int pinnedCount;
+        static thread_local bool outOfMemory;
+    };
+
+    thread_local int PinnedArray::pinnedCount = 0;
+    thread_local bool PinnedArray::outOfMemory = false;
 
     jintArray cToJint(JNIEnv *env, const raw_t *t, jsize len) {
-        // convert updated array to jintArray
         jintArray newT = env->NewIntArray(len);
-        int *arr = new int[len];
-        for (int i = 0; i < len; i++) {
-            arr[i] = t[i];
-        }
-        env->SetIntArrayRegion(newT, 0, len, arr);
+        env->SetIntArrayRegion(newT, 0, len, (const jint*) t);
         return newT;
     }
 
-    jobjectArray cFedtoJavaFed(JNIEnv *env, dbm::fed_t fed, jsize len) {
+    jobjectArray cFedtoJavaFed(JNIEnv *env, const dbm::fed_t &fed, jsize len) {
         jint fedSize = fed.size();
 
         jclass intArray1DClass = env->FindClass("[I");
@@ -34,28 +70,36 @@ namespace helper_functions
 
         jint y = 0;
         for (auto i = fed.begin(); i != fed.end(); ++i) {
-            auto x = i->const_dbm();
-            env->SetObjectArrayElement(zoneArray, y, helper_functions::cToJint(env, x, len));
+            jintArray zone = helper_functions::cToJint(env, i->const_dbm(), len);
+            env->SetObjectArrayElement(zoneArray, y, zone);
+            env->DeleteLocalRef(zone);
             y++;
         }
 
         return zoneArray;
     }
 
-    dbm::fed_t javaFedtoCFed(JNIEnv *env, jobjectArray fed, jsize size, jint dim) {
+    dbm::fed_t javaFedtoCFed(JNIEnv *env, jobjectArray fed, jint dim) {
         jsize length = env->GetArrayLength(fed);
 
-        dbm::fed_t cFed = (*new dbm::fed_t(dim));
+        dbm::fed_t cFed(dim);
 
         for (int i = 0; i < length; i++) {
             jintArray obj = (jintArray) env->GetObjectArrayElement(fed, i);
-            cFed = cFed.add(helper_functions::jintToC(env, obj, size), dim);
+            {
+                PinnedArray zone(env, obj, true);
+                if (zone.get() != NULL) cFed.add(zone.get(), dim);
+            }
+            env->DeleteLocalRef(obj);
+            if (env->ExceptionCheck()) break;
         }
 
         return cFed;
     }
 }
 
+using helper_functions::PinnedArray;
+
 JNIEXPORT jint JNICALL Java_lib_DBMLib_boundbool2raw(JNIEnv *env, jclass cls, jint bound, jboolean strict) {
     return dbm_boundbool2raw(bound, strict);
 }
@@ -64,104 +108,96 @@ JNIEXPORT jint JNICALL Java_lib_DBMLib_raw2bound(JNIEnv *env, jclass cls, jint r
    return dbm_raw2bound(raw);
 }
 
-JNIEXPORT jintArray JNICALL Java_lib_DBMLib_dbm_1init(JNIEnv *env, jclass cls, jintArray dbm, jint dim) {
-   // get size of dbm
-    jsize len = env->GetArrayLength(dbm);
-    // call library with built array
-    auto converted = helper_functions::jintToC(env, dbm, len);
-
-    dbm_init(converted, dim);
-
-    return helper_functions::cToJint(env, converted, len);
+JNIEXPORT void JNICALL Java_lib_DBMLib_dbm_1init(JNIEnv *env, jclass cls, jintArray dbm, jint dim) {
+    PinnedArray pinned(env, dbm, false);
+    if (pinned.get() == NULL) return;
+    dbm_init(pinned.get(), dim);
 }
 
-JNIEXPORT jintArray JNICALL Java_lib_DBMLib_dbm_1zero(JNIEnv *env, jclass cls, jintArray dbm, jint dim) {
-    jsize len = env->GetArrayLength(dbm);
-    auto converted = helper_functions::jintToC(env, dbm, len);
-     dbm_zero(converted, dim);
-     return helper_functions::cToJint(env, converted, len);
+JNIEXPORT void JNICALL Java_lib_DBMLib_dbm_1zero(JNIEnv *env, jclass cls, jintArray dbm, jint dim) {
+    PinnedArray pinned(env, dbm, false);
+    if (pinned.get() == NULL) return;
+    dbm_zero(pinned.get(), dim);
 }
 
-JNIEXPORT jintArray JNICALL Java_lib_DBMLib_dbm_1constrainBound(JNIEnv *env, jclass cls, jintArray dbm, jint dim, jint i,
+JNIEXPORT jboolean JNICALL Java_lib_DBMLib_dbm_1constrainBound(JNIEnv *env, jclass cls, jintArray dbm, jint dim, jint i,
     jint j, jint bound, jboolean strict) {
-    jsize len = env->GetArrayLength(dbm);
-    auto converted = helper_functions::jintToC(env, dbm, len);
-
     raw_t constraint = dbm_boundbool2raw(bound, strict);
-    dbm_constrain1(converted, dim, i, j, constraint);
 
-    return helper_functions::cToJint(env, converted, len);
+    PinnedArray pinned(env, dbm, false);
+    if (pinned.get() == NULL) return JNI_FALSE;
+    return dbm_constrain1(pinned.get(), dim, i, j, constraint);
 }
 
-JNIEXPORT jintArray JNICALL Java_lib_DBMLib_dbm_1constrainRaw(JNIEnv *env, jclass cls, jintArray dbm, jint dim, jint i,
+JNIEXPORT jboolean JNICALL Java_lib_DBMLib_dbm_1constrainRaw(JNIEnv *env, jclass cls, jintArray dbm, jint dim, jint i,
  jint j, jint raw) {
-    jsize len = env->GetArrayLength(dbm);
-    auto converted = helper_functions::jintToC(env, dbm, len);
+    PinnedArray pinned(env, dbm, false);
+    if (pinned.get() == NULL) return JNI_FALSE;
+    return dbm_constrain1(pinned.get(), dim, i, j, raw);
+}
 
-    dbm_constrain1(converted, dim, i, j, raw);
+JNIEXPORT jboolean JNICALL Java_lib_DBMLib_dbm_1constrainN(JNIEnv *env, jclass cls, jintArray dbm, jint dim,
+                                                          jintArray constraints, jint n) {
+    static_assert(sizeof(constraint_t) == 3 * sizeof(jint), "constraints are passed as int triples");
 
-    return helper_functions::cToJint(env, converted, len);
-}
+    PinnedArray pinned(env, dbm, false);
+    if (pinned.get() == NULL) return JNI_FALSE;
+    PinnedArray pinnedConstraints(env, constraints, true);
+    if (pinnedConstraints.get() == NULL) return JNI_FALSE;
 
-JNIEXPORT jintArray JNICALL Java_lib_DBMLib_dbm_1up(JNIEnv *env, jclass cls, jintArray dbm, jint dim) {
-    jsize len = env->GetArrayLength(dbm);
+    // dbm_constrainN requires a non empty dbm
+    if (pinned.get()[0] < dbm_LE_ZERO) return JNI_FALSE;
+    if (n == 0) return JNI_TRUE;
 
-    auto converted = helper_functions::jintToC(env, dbm, len);
-    dbm_up(converted, dim);
+    return dbm_constrainN(pinned.get(), dim, reinterpret_cast<const constraint_t *>(pinnedConstraints.get()), n / 3);
+}
 
-    return helper_functions::cToJint(env, converted, len);
+JNIEXPORT void JNICALL Java_lib_DBMLib_dbm_1up(JNIEnv *env, jclass cls, jintArray dbm, jint dim) {
+    PinnedArray pinned(env, dbm, false);
+    if (pinned.get() == NULL) return;
+    dbm_up(pinned.get(), dim);
 }
 
 JNIEXPORT jboolean JNICALL Java_lib_DBMLib_dbm_1isSubsetEq(JNIEnv *env, jclass cls, jintArray dbm1, jintArray dbm2, jint dim) {
-    jsize len = env->GetArrayLength(dbm2);
+    PinnedArray pinned1(env, dbm1, true);
+    if (pinned1.get() == NULL) return JNI_FALSE;
+    PinnedArray pinned2(env, dbm2, true);
+    if (pinned2.get() == NULL) return JNI_FALSE;
 
-    auto converted1 = helper_functions::jintToC(env, dbm1, len);
-    auto converted2 = helper_functions::jintToC(env, dbm2, len);
-
-    return dbm_isSubsetEq(converted1, converted2, dim);
+    return dbm_isSubsetEq(pinned1.get(), pinned2.get(), dim);
 }
 
-JNIEXPORT jintArray JNICALL Java_lib_DBMLib_dbm_1updateValue(JNIEnv *env, jclass cls, jintArray dbm, jint dim, jint clockIndex, jint value) {
-    jsize len = env->GetArrayLength(dbm);
-
-    auto converted = helper_functions::jintToC(env, dbm, len);
-    dbm_updateValue(converted, dim, clockIndex, value);
-
-    return helper_functions::cToJint(env, converted, len);
+JNIEXPORT void JNICALL Java_lib_DBMLib_dbm_1updateValue(JNIEnv *env, jclass cls, jintArray dbm, jint dim, jint clockIndex, jint value) {
+    PinnedArray pinned(env, dbm, false);
+    if (pinned.get() == NULL) return;
+    dbm_updateValue(pinned.get(), dim, clockIndex, value);
 }
 
 JNIEXPORT jboolean JNICALL Java_lib_DBMLib_dbm_1isValid(JNIEnv *env, jclass cls, jintArray dbm, jint dim) {
-    jsize len = env->GetArrayLength(dbm);
-
-    auto converted = helper_functions::jintToC(env, dbm, len);
-    return dbm_isValid(converted, dim);
+    PinnedArray pinned(env, dbm, true);
+    if (pinned.get() == NULL) return JNI_FALSE;
+    return dbm_isValid(pinned.get(), dim);
 }
 
 JNIEXPORT jboolean JNICALL Java_lib_DBMLib_dbm_1intersection(JNIEnv *env, jclass cls, jintArray dbm1, jintArray dbm2, jint dim) {
-    jsize len = env->GetArrayLength(dbm2);
-
-    auto converted1 = helper_functions::jintToC(env, dbm1, len);
-    auto converted2 = helper_functions::jintToC(env, dbm2, len);
+    PinnedArray pinned1(env, dbm1, false);
+    if (pinned1.get() == NULL) return JNI_FALSE;
+    PinnedArray pinned2(env, dbm2, true);
+    if (pinned2.get() == NULL) return JNI_FALSE;
 
-    return dbm_intersection(converted1, converted2, dim);
+    return dbm_intersection(pinned1.get(), pinned2.get(), dim);
 }
 
-JNIEXPORT jintArray JNICALL Java_lib_DBMLib_dbm_1freeAllDown(JNIEnv *env, jclass cls, jintArray dbm, jint dim) {
-    jsize len = env->GetArrayLength(dbm);
-
-    auto converted = helper_functions::jintToC(env, dbm, len);
-    dbm_freeAllDown(converted, dim);
-
-    return helper_functions::cToJint(env, converted, len);
+JNIEXPORT void JNICALL Java_lib_DBMLib_dbm_1freeAllDown(JNIEnv *env, jclass cls, jintArray dbm, jint dim) {
+    PinnedArray pinned(env, dbm, false);
+    if (pinned.get() == NULL) return;
+    dbm_freeAllDown(pinned.get(), dim);
 }
 
-JNIEXPORT jintArray JNICALL Java_lib_DBMLib_dbm_1freeDown(JNIEnv *env, jclass cls, jintArray dbm, jint dim, jint clockIndex) {
-    jsize len = env->GetArrayLength(dbm);
-
-    auto converted = helper_functions::jintToC(env, dbm, len);
-    dbm_freeDown(converted, dim, clockIndex);
-
-    return helper_functions::cToJint(env, converted, len);
+JNIEXPORT void JNICALL Java_lib_DBMLib_dbm_1freeDown(JNIEnv *env, jclass cls, jintArray dbm, jint dim, jint clockIndex) {
+    PinnedArray pinned(env, dbm, false);
+    if (pinned.get() == NULL) return;
+    dbm_freeDown(pinned.get(), dim, clockIndex);
 }
 
 JNIEXPORT jboolean JNICALL Java_lib_DBMLib_dbm_1rawIsStrict(JNIEnv *env, jclass cls, jint raw) {
@@ -173,46 +209,100 @@ JNIEXPORT jint JNICALL Java_lib_DBMLib_dbm_1addRawRaw(JNIEnv *env, jclass cls, j
 }
 
 JNIEXPORT jobjectArray JNICALL Java_lib_DBMLib_dbm_1minus_1dbm(JNIEnv *env, jclass cls, jintArray dbm1, jintArray dbm2, jint dim) {
-    jsize len = env->GetArrayLength(dbm1);
+    dbm::fed_t fed(dim);
+    {
+        PinnedArray pinned1(env, dbm1, true);
+        if (pinned1.get() == NULL) return NULL;
+        PinnedArray pinned2(env, dbm2, true);
+        if (pinned2.get() == NULL) return NULL;
+        fed = dbm::fed_t::subtract(pinned1.get(), pinned2.get(), dim);
+    }
 
-    auto converted1 = helper_functions::jintToC(env, dbm1, len);
-    auto converted2 = helper_functions::jintToC(env, dbm2, len);
+    return helper_functions::cFedtoJavaFed(env, fed, dim * dim);
+}
 
-    auto fed = dbm::fed_t::subtract(converted1, converted2, dim);
+JNIEXPORT jobjectArray JNICALL Java_lib_DBMLib_fed_1minus_1dbm(JNIEnv *env, jclass cls, jobjectArray fed, jintArray dbm, jint dim) {
+    auto convertedFed = helper_functions::javaFedtoCFed(env, fed, dim);
+    if (env->ExceptionCheck()) return NULL;
+    {
+        PinnedArray pinned(env, dbm, true);
+        if (pinned.get() == NULL) return NULL;
+        convertedFed -= pinned.get();
+    }
 
-    return helper_functions::cFedtoJavaFed(env, fed, len);
+    return helper_functions::cFedtoJavaFed(env, convertedFed, dim * dim);
 }
 
-JNIEXPORT jobjectArray JNICALL Java_lib_DBMLib_fed_1minus_1dbm(JNIEnv *env, jclass cls, jobjectArray fed, jintArray dbm, jint dim) {
-    jsize len = env->GetArrayLength(dbm);
+JNIEXPORT jobjectArray JNICALL Java_lib_DBMLib_fed_1minus_1fed(JNIEnv *env, jclass cls, jobjectArray fed1, jobjectArray fed2, jint dim) {
+    auto convertedFed1 = helper_functions::javaFedtoCFed(env, fed1, dim);
+    auto convertedFed2 = helper_functions::javaFedtoCFed(env, fed2, dim);
+    if (env->ExceptionCheck()) return NULL;
 
-    auto convertedFed = helper_functions::javaFedtoCFed(env, fed, len, dim);
-    auto convertedDbm = helper_functions::jintToC(env, dbm, len);
+    convertedFed1 -= convertedFed2;
 
-    convertedFed -= convertedDbm;
+    return helper_functions::cFedtoJavaFed(env, convertedFed1, dim * dim);
+}
+
+JNIEXPORT void JNICALL Java_lib_DBMLib_dbm_1extrapolateMaxBounds(JNIEnv *env, jclass cls, jintArray dbm, jint dim, jintArray max) {
+    PinnedArray pinned(env, dbm, false);
+    if (pinned.get() == NULL) return;
+    PinnedArray pinnedMax(env, max, true);
+    if (pinnedMax.get() == NULL) return;
 
-    return helper_functions::cFedtoJavaFed(env, convertedFed, len);
+    dbm_extrapolateMaxBounds(pinned.get(), dim, pinnedMax.get());
 }
 
-JNIEXPORT jobjectArray JNICALL Java_lib_DBMLib_fed_1minus_1fed(JNIEnv *env, jclass cls, jobjectArray fed1, jobjectArray fed2, jint dim) {
-    jint len = dim * dim;
+// Federations handed to Java as opaque handles, a handle is the address of a heap allocated fed_t.
+// They are freed by the cleaner of lib.NativeFederation.
+static dbm::fed_t *toFed(jlong handle) {
+    return reinterpret_cast<dbm::fed_t *>(handle);
+}
 
-    auto convertedFed1 = helper_functions::javaFedtoCFed(env, fed1, len, dim);
-    auto convertedFed2 = helper_functions::javaFedtoCFed(env, fed2, len, dim);
+JNIEXPORT jlong JNICALL Java_lib_DBMLib_fed_1create(JNIEnv *env, jclass cls, jobjectArray dbms, jint dim) {
+    auto convertedFed = helper_functions::javaFedtoCFed(env, dbms, dim);
+    if (env->ExceptionCheck()) return 0;
 
-    convertedFed1 -= convertedFed2;
+    return reinterpret_cast<jlong>(new dbm::fed_t(convertedFed));
+}
 
-    return helper_functions::cFedtoJavaFed(env, convertedFed1, len);
+JNIEXPORT jlong JNICALL Java_lib_DBMLib_fed_1copy(JNIEnv *env, jclass cls, jlong fed) {
+    return reinterpret_cast<jlong>(new dbm::fed_t(*toFed(fed)));
 }
 
-JNIEXPORT jintArray JNICALL Java_lib_DBMLib_dbm_1extrapolateMaxBounds(JNIEnv *env, jclass cls, jintArray dbm, jint dim, jintArray max) {
-    jsize len = env->GetArrayLength(dbm);
+JNIEXPORT void JNICALL Java_lib_DBMLib_fed_1free(JNIEnv *env, jclass cls, jlong fed) {
+    delete toFed(fed);
+}
+
+JNIEXPORT void JNICALL Java_lib_DBMLib_fed_1subtract(JNIEnv *env, jclass cls, jlong fed1, jlong fed2) {
+    *toFed(fed1) -= *toFed(fed2);
+}
+
+JNIEXPORT void JNICALL Java_lib_DBMLib_fed_1union(JNIEnv *env, jclass cls, jlong fed1, jlong fed2) {
+    *toFed(fed1) |= *toFed(fed2);
+}
+
+JNIEXPORT void JNICALL Java_lib_DBMLib_fed_1intersect(JNIEnv *env, jclass cls, jlong fed1, jlong fed2) {
+    *toFed(fed1) &= *toFed(fed2);
+}
+
+JNIEXPORT jboolean JNICALL Java_lib_DBMLib_fed_1isEmpty(JNIEnv *env, jclass cls, jlong fed) {
+    return toFed(fed)->isEmpty();
+}
+
+JNIEXPORT jboolean JNICALL Java_lib_DBMLib_fed_1isSubsetEq(JNIEnv *env, jclass cls, jlong fed1, jlong fed2) {
+    // fed_t::le is only approximate for federations, the subtraction test is exact
+    return toFed(fed1)->isSubtractionEmpty(*toFed(fed2));
+}
+
+JNIEXPORT jint JNICALL Java_lib_DBMLib_fed_1size(JNIEnv *env, jclass cls, jlong fed) {
+    return toFed(fed)->size();
+}
 
-    auto converted = helper_functions::jintToC(env, dbm, len);
-    auto convertedMax = helper_functions::jintToC(env, max, len);
-    dbm_extrapolateMaxBounds(converted, dim, convertedMax);
+JNIEXPORT jobjectArray JNICALL Java_lib_DBMLib_fed_1getDbms(JNIEnv *env, jclass cls, jlong fed) {
+    const dbm::fed_t *cFed = toFed(fed);
+    jsize dim = cFed->getDimension();
 
-    return helper_functions::cToJint(env, converted, len);
+    return helper_functions::cFedtoJavaFed(env, *cFed, dim * dim);
 }
 
-int main() { return 0; }
\ No newline at end of file
+int main() { return 0; }
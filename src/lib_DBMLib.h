@@ -26,41 +26,49 @@ JNIEXPORT jint JNICALL Java_lib_DBMLib_raw2bound
 /*
  * Class:     lib_DBMLib
  * Method:    dbm_init
- * Signature: ([II)[I
+ * Signature: ([II)V
  */
-JNIEXPORT jintArray JNICALL Java_lib_DBMLib_dbm_1init
+JNIEXPORT void JNICALL Java_lib_DBMLib_dbm_1init
   (JNIEnv *, jclass, jintArray, jint);
 
 /*
  * Class:     lib_DBMLib
  * Method:    dbm_zero
- * Signature: ([II)[I
+ * Signature: ([II)V
  */
-JNIEXPORT jintArray JNICALL Java_lib_DBMLib_dbm_1zero
+JNIEXPORT void JNICALL Java_lib_DBMLib_dbm_1zero
   (JNIEnv *, jclass, jintArray, jint);
 
 /*
  * Class:     lib_DBMLib
  * Method:    dbm_constrainBound
- * Signature: ([IIIIIZ)[I
+ * Signature: ([IIIIIZ)Z
  */
-JNIEXPORT jintArray JNICALL Java_lib_DBMLib_dbm_1constrainBound
+JNIEXPORT jboolean JNICALL Java_lib_DBMLib_dbm_1constrainBound
   (JNIEnv *, jclass, jintArray, jint, jint, jint, jint, jboolean);
 
 /*
  * Class:     lib_DBMLib
  * Method:    dbm_constrainRaw
- * Signature: ([IIIII)[I
+ * Signature: ([IIIII)Z
  */
-JNIEXPORT jintArray JNICALL Java_lib_DBMLib_dbm_1constrainRaw
+JNIEXPORT jboolean JNICALL Java_lib_DBMLib_dbm_1constrainRaw
   (JNIEnv *, jclass, jintArray, jint, jint, jint, jint);
 
+/*
+ * Class:     lib_DBMLib
+ * Method:    dbm_constrainN
+ * Signature: ([II[II)Z
+ */
+JNIEXPORT jboolean JNICALL Java_lib_DBMLib_dbm_1constrainN
+  (JNIEnv *, jclass, jintArray, jint, jintArray, jint);
+
 /*
  * Class:     lib_DBMLib
  * Method:    dbm_up
- * Signature: ([II)[I
+ * Signature: ([II)V
  */
-JNIEXPORT jintArray JNICALL Java_lib_DBMLib_dbm_1up
+JNIEXPORT void JNICALL Java_lib_DBMLib_dbm_1up
   (JNIEnv *, jclass, jintArray, jint);
 
 /*
@@ -74,9 +82,9 @@ JNIEXPORT jboolean JNICALL Java_lib_DBMLib_dbm_1isSubsetEq
 /*
  * Class:     lib_DBMLib
  * Method:    dbm_updateValue
- * Signature: ([IIII)[I
+ * Signature: ([IIII)V
  */
-JNIEXPORT jintArray JNICALL Java_lib_DBMLib_dbm_1updateValue
+JNIEXPORT void JNICALL Java_lib_DBMLib_dbm_1updateValue
   (JNIEnv *, jclass, jintArray, jint, jint, jint);
 
 /*
@@ -98,17 +106,17 @@ JNIEXPORT jboolean JNICALL Java_lib_DBMLib_dbm_1intersection
 /*
  * Class:     lib_DBMLib
  * Method:    dbm_freeAllDown
- * Signature: ([II)[I
+ * Signature: ([II)V
  */
-JNIEXPORT jintArray JNICALL Java_lib_DBMLib_dbm_1freeAllDown
+JNIEXPORT void JNICALL Java_lib_DBMLib_dbm_1freeAllDown
   (JNIEnv *, jclass, jintArray, jint);
 
 /*
  * Class:     lib_DBMLib
  * Method:    dbm_freeDown
- * Signature: ([III)[I
+ * Signature: ([III)V
  */
-JNIEXPORT jintArray JNICALL Java_lib_DBMLib_dbm_1freeDown
+JNIEXPORT void JNICALL Java_lib_DBMLib_dbm_1freeDown
   (JNIEnv *, jclass, jintArray, jint, jint);
 
 /*
@@ -154,11 +162,91 @@ JNIEXPORT jobjectArray JNICALL Java_lib_DBMLib_fed_1minus_1fed
 /*
  * Class:     lib_DBMLib
  * Method:    dbm_extrapolateMaxBounds
- * Signature: ([II[I)[I
+ * Signature: ([II[I)V
  */
-JNIEXPORT jintArray JNICALL Java_lib_DBMLib_dbm_1extrapolateMaxBounds
+JNIEXPORT void JNICALL Java_lib_DBMLib_dbm_1extrapolateMaxBounds
   (JNIEnv *, jclass, jintArray, jint, jintArray);
 
+/*
+ * Class:     lib_DBMLib
+ * Method:    fed_create
+ * Signature: ([[II)J
+ */
+JNIEXPORT jlong JNICALL Java_lib_DBMLib_fed_1create
+  (JNIEnv *, jclass, jobjectArray, jint);
+
+/*
+ * Class:     lib_DBMLib
+ * Method:    fed_copy
+ * Signature: (J)J
+ */
+JNIEXPORT jlong JNICALL Java_lib_DBMLib_fed_1copy
+  (JNIEnv *, jclass, jlong);
+
+/*
+ * Class:     lib_DBMLib
+ * Method:    fed_free
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_lib_DBMLib_fed_1free
+  (JNIEnv *, jclass, jlong);
+
+/*
+ * Class:     lib_DBMLib
+ * Method:    fed_subtract
+ * Signature: (JJ)V
+ */
+JNIEXPORT void JNICALL Java_lib_DBMLib_fed_1subtract
+  (JNIEnv *, jclass, jlong, jlong);
+
+/*
+ * Class:     lib_DBMLib
+ * Method:    fed_union
+ * Signature: (JJ)V
+ */
+JNIEXPORT void JNICALL Java_lib_DBMLib_fed_1union
+  (JNIEnv *, jclass, jlong, jlong);
+
+/*
+ * Class:     lib_DBMLib
+ * Method:    fed_intersect
+ * Signature: (JJ)V
+ */
+JNIEXPORT void JNICALL Java_lib_DBMLib_fed_1intersect
+  (JNIEnv *, jclass, jlong, jlong);
+
+/*
+ * Class:     lib_DBMLib
+ * Method:    fed_isEmpty
+ * Signature: (J)Z
+ */
+JNIEXPORT jboolean JNICALL Java_lib_DBMLib_fed_1isEmpty
+  (JNIEnv *, jclass, jlong);
+
+/*
+ * Class:     lib_DBMLib
+ * Method:    fed_isSubsetEq
+ * Signature: (JJ)Z
+ */
+JNIEXPORT jboolean JNICALL Java_lib_DBMLib_fed_1isSubsetEq
+  (JNIEnv *, jclass, jlong, jlong);
+
+/*
+ * Class:     lib_DBMLib
+ * Method:    fed_size
+ * Signature: (J)I
+ */
+JNIEXPORT jint JNICALL Java_lib_DBMLib_fed_1size
+  (JNIEnv *, jclass, jlong);
+
+/*
+ * Class:     lib_DBMLib
+ * Method:    fed_getDbms
+ * Signature: (J)[[I
+ */
+JNIEXPORT jobjectArray JNICALL Java_lib_DBMLib_fed_1getDbms
+  (JNIEnv *, jclass, jlong);
+
 #ifdef __cplusplus
 }
 #endif
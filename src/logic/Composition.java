@@ -8,6 +8,7 @@ import java.util.stream.Collectors;
 public class Composition extends TransitionSystem {
     private final TransitionSystem[] systems;
     private final Set<Channel> inputs, outputs, syncs;
+    private final MoveCache moveCache = new MoveCache();
 
     public Composition(TransitionSystem[] systems) {
         this.systems = systems;
@@ -80,6 +81,18 @@ public class Composition extends TransitionSystem {
         return getInitialLocation(systems);
     }
 
+    public List<Integer> getMaxBounds(){
+        List<Integer> res = new ArrayList<>();
+        for (TransitionSystem ts : systems){
+            res.addAll(ts.getMaxBounds());
+        }
+        return res;
+    }
+
+    void getLocalMaxBounds(SymbolicLocation location, int[] bounds, int offset) {
+        getComposedMaxBounds(systems, location, bounds, offset);
+    }
+
     public List<SimpleTransitionSystem> getSystems(){
         List<SimpleTransitionSystem> result = new ArrayList<>();
         for(TransitionSystem ts : systems){
@@ -89,29 +102,33 @@ public class Composition extends TransitionSystem {
     }
 
     // build a list of transitions from a given state and a signal
-    public List<Transition> getNextTransitions(State currentState, Channel channel, List<Clock> allClocks) {
-        List<SymbolicLocation> locations = ((ComplexLocation) currentState.getLocation()).getLocations();
-
-        // these will store the locations of the target states and the corresponding transitions
-        List<Move> resultMoves = new ArrayList<>();
-
-        if (checkForOutputs(channel, locations))
-            resultMoves = computeResultMoves(locations, channel);
+    public List<Transition> getNextTransitions(State currentState, Channel channel, ClockIndex allClocks) {
+        List<Move> resultMoves = getMoves(currentState.getLocation(), channel);
 
         return createNewTransitions(currentState, resultMoves, allClocks);
     }
 
+    public MoveCache getMoveCache() {
+        return moveCache;
+    }
+
     public List<Move> getNextMoves(SymbolicLocation symLocation, Channel channel) {
         // Check if action belongs to this TS at all before proceeding
         if (!outputs.contains(channel) && !inputs.contains(channel) && !syncs.contains(channel))
             return new ArrayList<>();
 
-        // If action is sync, then check if there is corresponding output in TS
-        if (!checkForOutputs(channel, ((ComplexLocation) symLocation).getLocations())) return new ArrayList<>();
+        return getMoves(symLocation, channel);
+    }
+
+    private List<Move> getMoves(SymbolicLocation symLocation, Channel channel) {
+        return moveCache.get(symLocation, channel, () -> {
+            List<SymbolicLocation> symLocs = ((ComplexLocation) symLocation).getLocations();
 
-        List<SymbolicLocation> symLocs = ((ComplexLocation) symLocation).getLocations();
+            // If action is sync, then check if there is corresponding output in TS
+            if (!checkForOutputs(channel, symLocs)) return new ArrayList<>();
 
-        return computeResultMoves(symLocs, channel);
+            return computeResultMoves(symLocs, channel);
+        });
     }
 
     private List<Move> computeResultMoves(List<SymbolicLocation> locations, Channel channel) {
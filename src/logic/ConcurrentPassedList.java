@@ -0,0 +1,38 @@
+package logic;
+
+import models.LocationPair;
+import models.StatePair;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+// Passed state pairs shared by the workers of the parallel refinement check. The buckets are sharded by location pair
+// and locked one at a time, so workers only wait for each other when they reach the same pair of locations.
+// Like PassedWaitingList, a bucket only keeps zones that are not included in another one. The zones are kept in an
+// arena outside the heap, released when the check is done.
+class ConcurrentPassedList {
+    private final ConcurrentHashMap<LocationPair, ZoneArena.Handles> buckets = new ConcurrentHashMap<>();
+    private final ZoneArena arena = new ZoneArena();
+
+    // Returns false if a stored pair already covers the given one, otherwise stores it
+    boolean add(StatePair pair) {
+        LocationPair locPair = new LocationPair(pair.getLeftLocation(), pair.getRightLocation());
+        ZoneArena.Handles bucket = buckets.computeIfAbsent(locPair, k -> new ZoneArena.Handles());
+        int[] dbm = pair.getZone().getDbm();
+
+        synchronized (bucket) {
+            for (int i = 0; i < bucket.size(); i++) {
+                if (arena.isSubset(dbm, bucket.get(i))) return false;
+            }
+
+            bucket.removeIf(handle -> arena.isSuperset(dbm, handle));
+            bucket.add(arena.store(dbm));
+        }
+
+        return true;
+    }
+
+    void release() {
+        buckets.clear();
+        arena.release();
+    }
+}
@@ -7,6 +7,7 @@ import java.util.stream.Collectors;
 
 public class Conjunction extends TransitionSystem {
     private final TransitionSystem[] systems;
+    private final MoveCache moveCache = new MoveCache();
 
     public Conjunction(TransitionSystem[] systems) {
         this.systems = systems;
@@ -34,6 +35,18 @@ public class Conjunction extends TransitionSystem {
         return outputs;
     }
 
+    public List<Integer> getMaxBounds(){
+        List<Integer> res = new ArrayList<>();
+        for (TransitionSystem ts : systems){
+            res.addAll(ts.getMaxBounds());
+        }
+        return res;
+    }
+
+    void getLocalMaxBounds(SymbolicLocation location, int[] bounds, int offset) {
+        getComposedMaxBounds(systems, location, bounds, offset);
+    }
+
     public List<SimpleTransitionSystem> getSystems(){
         List<SimpleTransitionSystem> result = new ArrayList<>();
         for(TransitionSystem ts : systems){
@@ -46,20 +59,21 @@ public class Conjunction extends TransitionSystem {
         return getInitialLocation(systems);
     }
 
-    public List<Transition> getNextTransitions(State currentState, Channel channel, List<Clock> allClocks) {
-        List<SymbolicLocation> locations = ((ComplexLocation) currentState.getLocation()).getLocations();
-
+    public List<Transition> getNextTransitions(State currentState, Channel channel, ClockIndex allClocks) {
         // these will store the locations of the target states and the corresponding transitions
-        List<Move> resultMoves = computeResultMoves(locations, channel);
+        List<Move> resultMoves = getNextMoves(currentState.getLocation(), channel);
         if (resultMoves.isEmpty()) return new ArrayList<>();
 
         return createNewTransitions(currentState, resultMoves, allClocks);
     }
 
-    public List<Move> getNextMoves(SymbolicLocation symLocation, Channel channel) {
-        List<SymbolicLocation> symLocs = ((ComplexLocation) symLocation).getLocations();
+    public MoveCache getMoveCache() {
+        return moveCache;
+    }
 
-        return computeResultMoves(symLocs, channel);
+    public List<Move> getNextMoves(SymbolicLocation symLocation, Channel channel) {
+        return moveCache.get(symLocation, channel,
+                () -> computeResultMoves(((ComplexLocation) symLocation).getLocations(), channel));
     }
 
     private List<Move> computeResultMoves(List<SymbolicLocation> locations, Channel channel) {
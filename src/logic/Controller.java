@@ -2,95 +2,138 @@ package logic;
 
 import models.Automaton;
 import parser.JSONParser;
-import parser.XMLParser;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class Controller {
-    private static final List<String> Queries = new ArrayList<>();
-    private static List<SimpleTransitionSystem> transitionSystems = new ArrayList<>();
+    // number of queries of one request that run at the same time, e.g. -Dcontroller.threads=4
+    public static final String THREADS_PROPERTY = "controller.threads";
+    private static final ProjectCache projects = new ProjectCache();
+    private static final ExecutorService executor = createExecutor();
     private static final int FEATURE_REFINEMENT = 0;
     private static final int FEATURE_COMPOSITION = 1;
     private static final int FEATURE_CONJUNCTION = 2;
     private static final int FEATURE_QUOTIENT = 3;
 
-    public static List<String> handleRequest(String locQuery, boolean trace) throws Exception {
-        Queries.clear();
+    // Components of a single query. Checks keep state in the transition systems they run on, so every query gets
+    // transition systems of its own, built over the automata shared through the project cache.
+    private final List<SimpleTransitionSystem> transitionSystems = new ArrayList<>();
+
+    private Controller(List<Automaton> automata) {
+        for (Automaton automaton : automata) {
+            transitionSystems.add(new SimpleTransitionSystem(automaton));
+        }
+    }
+
+    private static ExecutorService createExecutor() {
+        int threads = Integer.getInteger(THREADS_PROPERTY, Runtime.getRuntime().availableProcessors());
+        return Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "query");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
 
+    // Runs the queries of the request in parallel, the results are returned in the order of the queries
+    public static List<String> handleRequest(String locQuery, boolean trace) throws Exception {
         // Separates location and Queries
-        ArrayList<String> temp = new ArrayList<>(Arrays.asList(locQuery.split(" ")));
-        boolean isJson = temp.get(0).equals("-json");
-        String folderLoc = temp.get(1);
+        ArrayList<String> queries = new ArrayList<>(Arrays.asList(locQuery.split(" ")));
+        boolean isJson = queries.get(0).equals("-json");
+        String folderLoc = queries.get(1);
 
-        temp.remove(1);
-        temp.remove(0);
-        Queries.addAll(temp);
+        queries.remove(1);
+        queries.remove(0);
 
-        parseComponents(folderLoc, isJson); // Parses components and adds them to local variable cmpt
+        List<Automaton> automata = projects.getAutomata(folderLoc, isJson);
 
-        return runQueries(trace);
-    }
+        for (String query : queries) {
+            isQueryValid(query);
+        }
 
-    public static void parseComponents(String folderLocation, boolean isJson) {
-        Automaton[] cmpt = isJson ? JSONParser.parse(folderLocation, true) : XMLParser.parse(folderLocation, true);
-        for (Automaton automaton : cmpt) {
-            transitionSystems.add(new SimpleTransitionSystem(automaton));
+        List<Future<List<String>>> results = new ArrayList<>();
+        for (int i = 0; i < queries.size(); i++) {
+            String query = queries.get(i).replaceAll("\\s+", "");
+            boolean isLast = i == queries.size() - 1;
+            results.add(executor.submit(() -> new Controller(automata).runQuery(query, trace, isLast)));
+        }
+
+        List<String> returnlist = new ArrayList<>();
+        try {
+            for (Future<List<String>> result : results) {
+                returnlist.addAll(result.get());
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) throw (Exception) e.getCause();
+            throw e;
+        } finally {
+            for (Future<List<String>> result : results) {
+                result.cancel(true);
+            }
         }
+
+        return returnlist;
+    }
+
+    // The components of the project in a context of their own, for running single queries on them
+    public static Controller parseComponents(String folderLocation, boolean isJson) {
+        return new Controller(projects.getAutomata(folderLocation, isJson));
     }
 
-    private static List<String> runQueries(boolean trace) throws Exception {
+    private List<String> runQuery(String query, boolean trace, boolean isLast) {
         List<String> returnlist = new ArrayList<>();
 
-        for (int i = 0; i < Queries.size(); i++) {
-            isQueryValid(Queries.get(i));
-            Queries.set(i, Queries.get(i).replaceAll("\\s+", ""));
-            if (Queries.get(i).contains("refinement")) {
-                List<String> refSplit = Arrays.asList(Queries.get(i).replace("refinement:", "").split("<="));
-                Refinement ref = new Refinement(runQuery(refSplit.get(0)), runQuery(refSplit.get(1)));
-                boolean refCheck;
-                if (trace) {
-                    refCheck = ref.check(true);
-                    returnlist.add(refCheck ? "true " + JSONParser.writeRefinement(ref.getTree()) : "false ");
-                }
-                else {
-                    refCheck = ref.check();
-                    returnlist.add(refCheck ? "true" : "false");
-                }
+        if (query.contains("refinement")) {
+            List<String> refSplit = Arrays.asList(query.replace("refinement:", "").split("<="));
+            Refinement ref = new Refinement(runQuery(refSplit.get(0)), runQuery(refSplit.get(1)));
+            boolean refCheck;
+            if (trace) {
+                refCheck = ref.check(true);
+                returnlist.add(refCheck ? "true " + JSONParser.writeRefinement(ref.getTree()) : "false ");
+            }
+            else {
+                int threads = Integer.getInteger(Refinement.THREADS_PROPERTY, 1);
+                refCheck = threads > 1 ? ref.checkParallel(threads) : ref.check();
+                returnlist.add(refCheck ? "true" : "false");
+            }
 
-                if (i == Queries.size()-1 && refCheck) continue;
+            if (!(isLast && refCheck)) {
                 returnlist.add("\n");
                 if (!refCheck) returnlist.add(ref.getErrMsg());
             }
-            if (Queries.get(i).contains("consistency")) {
-                String cons = Queries.get(i).replace("consistency:", "");
-                TransitionSystem ts = runQuery(cons);
-                boolean passed = ts.isLeastConsistent();
-                returnlist.add(String.valueOf(passed));
-                if(!passed) returnlist.add("\n" + ts.getLastErr());
-            }
-            if (Queries.get(i).contains("implementation")) {
-                String impl = Queries.get(i).replace("implementation:", "");
-                TransitionSystem ts = runQuery(impl);
-                boolean passed = ts.isImplementation();
-                returnlist.add(String.valueOf(passed));
-                if(!passed) returnlist.add("\n" + ts.getLastErr());
-            }
-            if (Queries.get(i).contains("determinism")) {
-                String impl = Queries.get(i).replace("determinism:", "");
-                TransitionSystem ts = runQuery(impl);
-                boolean passed = ts.isDeterministic();
-                returnlist.add(String.valueOf(passed));
-                if(!passed) returnlist.add("\n" + ts.getLastErr());
-            }
-            //add if contains specification or smth else
         }
+        if (query.contains("consistency")) {
+            String cons = query.replace("consistency:", "");
+            TransitionSystem ts = runQuery(cons);
+            boolean passed = ts.isLeastConsistent();
+            returnlist.add(String.valueOf(passed));
+            if(!passed) returnlist.add("\n" + ts.getLastErr());
+        }
+        if (query.contains("implementation")) {
+            String impl = query.replace("implementation:", "");
+            TransitionSystem ts = runQuery(impl);
+            boolean passed = ts.isImplementation();
+            returnlist.add(String.valueOf(passed));
+            if(!passed) returnlist.add("\n" + ts.getLastErr());
+        }
+        if (query.contains("determinism")) {
+            String impl = query.replace("determinism:", "");
+            TransitionSystem ts = runQuery(impl);
+            boolean passed = ts.isDeterministic();
+            returnlist.add(String.valueOf(passed));
+            if(!passed) returnlist.add("\n" + ts.getLastErr());
+        }
+        //add if contains specification or smth else
 
         return returnlist;
     }
 
-    public static TransitionSystem runQuery(String part) {
+    public TransitionSystem runQuery(String part) {
         ArrayList<TransitionSystem> transitionSystems = new ArrayList<>();
 
         if (part.charAt(0) == '(') part = part.substring(1);
@@ -159,11 +202,11 @@ public class Controller {
     }
 
     // Finds and returns Automaton given the name of that component
-    private static TransitionSystem findComponent(String str) {
+    private TransitionSystem findComponent(String str) {
         for (SimpleTransitionSystem ts : transitionSystems)
             if (ts.getName().equalsIgnoreCase(str)) return ts;
 
-        System.out.println("Automaton does not exist  " + str);
+        System.err.println("Automaton does not exist  " + str);
         return null;
     }
 
@@ -12,17 +12,16 @@ public class GraphNode {
     private int nodeId;
 
 
-    public GraphNode(StatePair statePair) {
+    public GraphNode(StatePair statePair, int nodeId) {
         this.statePair = statePair;
         this.successors = new ArrayList<>();
         this.predecessors = new ArrayList<>();
         this.statePair.setNode(this);
-        this.nodeId = Refinement.NODE_ID;
-        Refinement.NODE_ID ++;
+        this.nodeId = nodeId;
     }
 
-    public GraphEdge constructSuccessor(StatePair pair, List<Edge> edgesL, List<Edge> edgesR) {
-        GraphEdge newEdge = new GraphEdge(this, new GraphNode(pair), edgesL, edgesR);
+    public GraphEdge constructSuccessor(StatePair pair, List<Edge> edgesL, List<Edge> edgesR, int nodeId) {
+        GraphEdge newEdge = new GraphEdge(this, new GraphNode(pair, nodeId), edgesL, edgesR);
         this.successors.add(newEdge);
         newEdge.getTarget().addPredecessor(newEdge);
 
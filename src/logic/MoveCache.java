@@ -0,0 +1,105 @@
+package logic;
+
+import models.Channel;
+import models.Move;
+import models.SymbolicLocation;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+// Moves of a composed system from a location on a channel, kept so that searches expanding the same location again
+// do not rebuild the product of the moves of the components. The least recently used entries are evicted once the
+// cache is full. Cached move lists are shared, so callers must not change them.
+public class MoveCache {
+    // maximum number of entries per composed system, e.g. -Dmoves.cache.size=10000, 0 disables the cache
+    public static final String SIZE_PROPERTY = "moves.cache.size";
+    public static final int DEFAULT_SIZE = 4096;
+
+    private final int maxSize;
+    private final Map<Key, List<Move>> entries;
+    private long hits, misses, evictions;
+
+    public MoveCache() {
+        this(Integer.getInteger(SIZE_PROPERTY, DEFAULT_SIZE));
+    }
+
+    public MoveCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<Key, List<Move>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, List<Move>> eldest) {
+                if (size() <= MoveCache.this.maxSize) return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    private static class Key {
+        private final SymbolicLocation location;
+        private final Channel channel;
+        private final int hash;
+
+        private Key(SymbolicLocation location, Channel channel) {
+            this.location = location;
+            this.channel = channel;
+            this.hash = 31 * location.hashCode() + channel.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key that = (Key) o;
+            return hash == that.hash && channel.equals(that.channel) && location.equals(that.location);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    // Returns the cached moves, or computes and stores them. The moves are computed outside the lock, so two threads
+    // missing on the same key at once both compute them.
+    List<Move> get(SymbolicLocation location, Channel channel, Supplier<List<Move>> compute) {
+        if (maxSize <= 0) return compute.get();
+
+        Key key = new Key(location, channel);
+        synchronized (this) {
+            List<Move> moves = entries.get(key);
+            if (moves != null) {
+                hits++;
+                return moves;
+            }
+            misses++;
+        }
+
+        List<Move> moves = Collections.unmodifiableList(compute.get());
+        synchronized (this) {
+            entries.put(key, moves);
+        }
+        return moves;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "MoveCache{size=" + entries.size() + ", hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + "}";
+    }
+}
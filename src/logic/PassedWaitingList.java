@@ -0,0 +1,133 @@
+package logic;
+
+import models.LocationPair;
+import models.StatePair;
+
+import java.util.*;
+
+// Passed and waiting state pairs of the refinement check in a single store, indexed by location pair.
+// Every location pair keeps a set of zones where no zone is included in another one: a new pair that is included
+// in a stored one is dropped, stored pairs included in a new one are evicted. Evicted pairs that were still waiting
+// are skipped when they reach the front of the queue.
+// Without a refinement graph nothing but the zone of a passed pair is needed, so it is moved to an arena outside the
+// heap when the pair is popped, and the arena is released with the list.
+class PassedWaitingList {
+    private final Map<LocationPair, List<Entry>> buckets = new HashMap<>();
+    private final Deque<Entry> waiting = new ArrayDeque<>();
+    // waiting pairs own a node of the refinement graph that must be expanded, so they are only evicted without a graph
+    private final boolean evictWaiting;
+    private final ZoneArena arena;
+    private int size;
+
+    PassedWaitingList(boolean evictWaiting) {
+        this.evictWaiting = evictWaiting;
+        this.arena = evictWaiting ? new ZoneArena() : null;
+    }
+
+    private static class Entry {
+        // the pair, or null once its zone is only kept in the arena
+        private StatePair pair;
+        private int handle;
+        private boolean isWaiting = true;
+        private boolean isEvicted = false;
+
+        private Entry(StatePair pair) {
+            this.pair = pair;
+        }
+    }
+
+    // Adds the pair to the waiting list, unless a stored pair already covers it
+    boolean add(StatePair pair) {
+        List<Entry> bucket = buckets.computeIfAbsent(locationPair(pair), k -> new ArrayList<>());
+
+        for (Entry entry : bucket) {
+            if (isIncluded(pair, entry)) return false;
+        }
+
+        Iterator<Entry> it = bucket.iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if ((evictWaiting || !entry.isWaiting) && includes(entry, pair)) {
+                entry.isEvicted = true;
+                it.remove();
+                size--;
+            }
+        }
+
+        Entry entry = new Entry(pair);
+        bucket.add(entry);
+        waiting.add(entry);
+        size++;
+
+        return true;
+    }
+
+    // The stored pair that covers the given one, or null if there is none or it is only kept in the arena
+    StatePair getCovering(StatePair pair) {
+        List<Entry> bucket = buckets.getOrDefault(locationPair(pair), Collections.emptyList());
+
+        for (Entry entry : bucket) {
+            if (isIncluded(pair, entry)) return entry.pair;
+        }
+        return null;
+    }
+
+    boolean hasWaiting() {
+        skipEvicted();
+        return !waiting.isEmpty();
+    }
+
+    StatePair peekWaiting() {
+        skipEvicted();
+        return waiting.getFirst().pair;
+    }
+
+    // Moves the first waiting pair to passed and returns it. Exploring a pair does not change its zone, so the passed
+    // list keeps the pair itself, or only its zone without a graph.
+    StatePair popWaiting() {
+        skipEvicted();
+        Entry entry = waiting.pop();
+        StatePair pair = entry.pair;
+
+        entry.isWaiting = false;
+        if (arena != null) {
+            entry.handle = arena.store(pair.getZone().getDbm());
+            entry.pair = null;
+        }
+        return pair;
+    }
+
+    // number of stored pairs, passed and waiting
+    int size() {
+        return size;
+    }
+
+    // drops the zones in the arena, the list is not used afterwards
+    void release() {
+        buckets.clear();
+        waiting.clear();
+        if (arena != null) arena.release();
+    }
+
+    private void skipEvicted() {
+        while (!waiting.isEmpty() && waiting.getFirst().isEvicted) {
+            waiting.pop();
+        }
+    }
+
+    private static LocationPair locationPair(StatePair pair) {
+        return new LocationPair(pair.getLeftLocation(), pair.getRightLocation());
+    }
+
+    // whether the pair is included in the stored one, both on the same locations
+    private boolean isIncluded(StatePair pair, Entry entry) {
+        if (entry.pair == null) return arena.isSubset(pair.getZone().getDbm(), entry.handle);
+        return pair.getZone().isSubset(entry.pair.getZone());
+    }
+
+    // whether the stored pair is included in the given one, both on the same locations
+    private boolean includes(Entry entry, StatePair pair) {
+        if (entry.pair == null) return arena.isSuperset(pair.getZone().getDbm(), entry.handle);
+        return entry.pair.getZone().isSubset(pair.getZone());
+    }
+}
@@ -0,0 +1,165 @@
+package logic;
+
+import models.Automaton;
+import parser.JSONParser;
+import parser.ProjectSnapshot;
+import parser.SymbolTable;
+import parser.XMLParser;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Parsed components per project, so repeated queries on the same project do not parse it again.
+// A component file is parsed again when its modification time or size changed, components of removed files are dropped.
+// Automata are never changed after parsing, so they can be shared by all queries on the project.
+// With snapshots enabled the compiled components are also kept in a snapshot next to the project, which is read the
+// first time the project is used, so components whose content did not change are not parsed again after a restart.
+public class ProjectCache {
+    // whether compiled projects are kept in snapshots, e.g. -Dproject.snapshots=true
+    public static final String SNAPSHOTS_PROPERTY = "project.snapshots";
+
+    private final Map<String, Project> projects = new HashMap<>();
+    private final boolean useSnapshots;
+
+    public ProjectCache() {
+        this(Boolean.getBoolean(SNAPSHOTS_PROPERTY));
+    }
+
+    public ProjectCache(boolean useSnapshots) {
+        this.useSnapshots = useSnapshots;
+    }
+
+    private static class Project {
+        // channels are shared by all components of the project, also the ones parsed again later
+        private final SymbolTable symbols = new SymbolTable();
+        private Map<String, CachedFile> files = new LinkedHashMap<>();
+        // the entries of the snapshot by file name, only until the project is first loaded
+        private Map<String, ProjectSnapshot.Entry> snapshot;
+    }
+
+    private static class CachedFile {
+        private final long lastModified, length;
+        // hash of the content, only known when snapshots are used
+        private final long hash;
+        private final Automaton[] automata;
+
+        private CachedFile(File file, long hash, Automaton[] automata) {
+            this.lastModified = file.lastModified();
+            this.length = file.length();
+            this.hash = hash;
+            this.automata = automata;
+        }
+
+        private boolean isUpToDate(File file) {
+            return file.lastModified() == lastModified && file.length() == length;
+        }
+    }
+
+    // Returns the automata of the project in the folder (json) or file (xml), parsing only what changed since the last
+    // call. Changed json components are parsed in parallel.
+    public synchronized List<Automaton> getAutomata(String location, boolean isJson) {
+        String key = (isJson ? "json:" : "xml:") + new File(location).getAbsolutePath();
+        Project project = projects.get(key);
+        if (project == null) {
+            project = new Project();
+            if (useSnapshots)
+                project.snapshot = ProjectSnapshot.read(ProjectSnapshot.getFile(location, isJson), project.symbols);
+            projects.put(key, project);
+        }
+
+        List<File> files = isJson ? JSONParser.getComponentFiles(location) : Collections.singletonList(new File(location));
+        Map<String, CachedFile> current = new ConcurrentHashMap<>();
+        Map<String, CachedFile> previous = project.files;
+        Map<String, ProjectSnapshot.Entry> snapshot = project.snapshot;
+        SymbolTable symbols = project.symbols;
+        AtomicBoolean parsed = new AtomicBoolean(false);
+        Map<String, IllegalArgumentException> failures = new ConcurrentHashMap<>();
+
+        files.parallelStream().forEach(file -> {
+            CachedFile entry = previous.get(file.getPath());
+
+            try {
+                if (entry == null || !entry.isUpToDate(file)) {
+                    entry = load(file, isJson, symbols, snapshot, parsed);
+                }
+                current.put(file.getPath(), entry);
+            } catch (IllegalArgumentException e) {
+                failures.put(file.getPath(), e);
+            }
+        });
+
+        // a file that cannot be parsed fails the whole project, the cached files are kept for the next call
+        for (File file : files) {
+            IllegalArgumentException failure = failures.get(file.getPath());
+            if (failure != null) throw failure;
+        }
+
+        // the snapshot is outdated if a file was parsed, or if files were added or removed
+        Set<String> known = new HashSet<>();
+        if (snapshot != null) known.addAll(snapshot.keySet());
+        else previous.keySet().forEach(path -> known.add(new File(path).getName()));
+        boolean changed = parsed.get() || files.size() != known.size() || !files.stream().allMatch(f -> known.contains(f.getName()));
+        project.snapshot = null;
+
+        project.files = new LinkedHashMap<>();
+        List<Automaton> result = new ArrayList<>();
+        for (File file : files) {
+            CachedFile entry = current.get(file.getPath());
+            project.files.put(file.getPath(), entry);
+            result.addAll(Arrays.asList(entry.automata));
+        }
+
+        if (useSnapshots && changed)
+            writeSnapshot(location, isJson, project.files);
+
+        return result;
+    }
+
+    // Takes the automata of the file from the snapshot if its content did not change, and parses it otherwise
+    private CachedFile load(File file, boolean isJson, SymbolTable symbols, Map<String, ProjectSnapshot.Entry> snapshot,
+                            AtomicBoolean parsed) {
+        long hash = 0;
+        if (useSnapshots) {
+            try {
+                hash = ProjectSnapshot.hash(file);
+
+                ProjectSnapshot.Entry entry = snapshot == null ? null : snapshot.get(file.getName());
+                if (entry != null && entry.getHash() == hash)
+                    return new CachedFile(file, hash, entry.getAutomata());
+            } catch (IOException e) {
+                // parsing the file reports the problem
+            }
+        }
+
+        parsed.set(true);
+        return new CachedFile(file, hash, parse(file, isJson, symbols));
+    }
+
+    private static void writeSnapshot(String location, boolean isJson, Map<String, CachedFile> files) {
+        Map<String, ProjectSnapshot.Entry> entries = new LinkedHashMap<>();
+        for (Map.Entry<String, CachedFile> file : files.entrySet()) {
+            entries.put(new File(file.getKey()).getName(), new ProjectSnapshot.Entry(file.getValue().hash, file.getValue().automata));
+        }
+
+        try {
+            ProjectSnapshot.write(ProjectSnapshot.getFile(location, isJson), entries);
+        } catch (IOException e) {
+            // the snapshot only speeds up the next start, the project is loaded anyway
+            System.err.println("Could not write the snapshot of " + location + ": " + e.getMessage());
+        }
+    }
+
+    private static Automaton[] parse(File file, boolean isJson, SymbolTable symbols) {
+        if (!isJson) return XMLParser.parse(file.getPath(), true);
+
+        Automaton automaton = JSONParser.parseComponent(file, symbols, true);
+        return automaton == null ? new Automaton[0] : new Automaton[]{automaton};
+    }
+
+    public synchronized void clear() {
+        projects.clear();
+    }
+}
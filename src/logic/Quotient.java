@@ -10,6 +10,7 @@ public class Quotient extends TransitionSystem {
     private final TransitionSystem ts1, ts2;
     private final Set<Channel> inputs, outputs;
     private Clock newClock;
+    private final MoveCache moveCache = new MoveCache();
 
     public Quotient(TransitionSystem ts1, TransitionSystem ts2) {
         this.ts1 = ts1;
@@ -39,8 +40,7 @@ public class Quotient extends TransitionSystem {
         // the invariant of locations consisting of locations from each transition system should be true
         // which means the location has no invariants
         SymbolicLocation initLoc = getInitialLocation(new TransitionSystem[]{ts1, ts2});
-        ((ComplexLocation) initLoc).removeInvariants();
-        return initLoc;
+        return ((ComplexLocation) initLoc).withoutInvariants();
     }
 
     public Set<Channel> getInputs() {
@@ -58,14 +58,35 @@ public class Quotient extends TransitionSystem {
         return result;
     }
 
-    public List<Transition> getNextTransitions(State currentState, Channel channel, List<Clock> allClocks) {
+    // the new clock is only reset, never compared to a constant
+    public List<Integer> getMaxBounds(){
+        List<Integer> res = new ArrayList<>();
+        res.add(0);
+        res.addAll(ts1.getMaxBounds());
+        res.addAll(ts2.getMaxBounds());
+        return res;
+    }
+
+    public List<Transition> getNextTransitions(State currentState, Channel channel, ClockIndex allClocks) {
         SymbolicLocation location = currentState.getLocation();
 
         List<Move> moves = getNextMoves(location, channel);
         return createNewTransitions(currentState, moves, allClocks);
     }
 
+    public MoveCache getMoveCache() {
+        return moveCache;
+    }
+
+    // only moves from complex locations are cached, the inconsistent and universal locations have no equality
     public List<Move> getNextMoves(SymbolicLocation location, Channel channel) {
+        if (location instanceof ComplexLocation)
+            return moveCache.get(location, channel, () -> computeResultMoves(location, channel));
+
+        return computeResultMoves(location, channel);
+    }
+
+    private List<Move> computeResultMoves(SymbolicLocation location, Channel channel) {
         List<Move> resultMoves = new ArrayList<>();
 
         if (location instanceof ComplexLocation) {
@@ -137,7 +158,7 @@ public class Quotient extends TransitionSystem {
                 List<Move> movesFrom1 = getNextMoves(loc1, channel);
 
                 for (Move move : movesFrom1) {
-                    SymbolicLocation newLoc = new ComplexLocation(new ArrayList<>(Arrays.asList(move.getTarget(), loc2)));
+                    SymbolicLocation newLoc = locationTable.intern(Arrays.asList(move.getTarget(), loc2));
                     Move newMove3 = new Move(location, newLoc, new ArrayList<>());
                     newMove3.setGuards(move.getGuards());
                     newMove3.setUpdates(move.getUpdates());
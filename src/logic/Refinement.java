@@ -3,34 +3,39 @@ package logic;
 import models.*;
 
 import java.util.*;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 public class Refinement {
     private final TransitionSystem ts1, ts2;
-    private final List<Clock> allClocks;
-    private final Map<LocationPair, List<StatePair>> passed;
-    private final Deque<StatePair> waiting;
+    private final ClockIndex allClocks;
+    private PassedWaitingList pwList;
     private final Set<Channel> inputs1, inputs2, outputs1, outputs2;
     private GraphNode refGraph;
     private GraphNode currNode;
-    private GraphNode supersetNode;
     private int treeSize;
     private int[] maxBounds;
-    private static boolean RET_REF = false;
-    public static int NODE_ID = 0;
+    // number of threads the controller explores refinements with, e.g. -Drefinement.threads=8
+    public static final String THREADS_PROPERTY = "refinement.threads";
+    // how new state pairs are extrapolated: "local" with the bounds of the clocks in the locations of the pair (default),
+    // or "max" with the max bounds of the clocks over all locations, e.g. -Drefinement.extrapolation=max
+    public static final String EXTRAPOLATION_PROPERTY = "refinement.extrapolation";
+    private final boolean useLocalBounds;
+    // whether the refinement graph is built, and the id of its next node
+    private boolean retRef = false;
+    private int nodeId = 0;
     private StringBuilder errMsg = new StringBuilder();
 
     public Refinement(TransitionSystem system1, TransitionSystem system2) {
         this.ts1 = system1;
         this.ts2 = system2;
-        this.waiting = new ArrayDeque<>();
-        this.passed = new HashMap<>();
 
-        allClocks = new ArrayList<>(ts1.getClocks());
-        allClocks.addAll(ts2.getClocks());
-
-        // the first states we look at are the initial ones
-        waiting.push(getInitialStatePair());
+        List<Clock> clocks = new ArrayList<>(ts1.getClocks());
+        clocks.addAll(ts2.getClocks());
+        allClocks = new ClockIndex(clocks);
 
         inputs1 = ts1.getInputs();
         inputs2 = ts2.getInputs();
@@ -42,6 +47,7 @@ public class Refinement {
         outputs2.addAll(ts2.getSyncs());
 
         setMaxBounds();
+        useLocalBounds = !"max".equalsIgnoreCase(System.getProperty(EXTRAPOLATION_PROPERTY, "local"));
     }
 
     public String getErrMsg() {
@@ -49,13 +55,13 @@ public class Refinement {
     }
 
     public boolean check(boolean ret_ref) {
-        Refinement.NODE_ID = 0;
-        Refinement.RET_REF = ret_ref;
+        nodeId = 0;
+        retRef = ret_ref;
         return checkRef();
     }
 
     public boolean check() {
-        Refinement.RET_REF = false;
+        retRef = false;
         return checkRef();
     }
 
@@ -114,56 +120,140 @@ public class Refinement {
         if (!checkPreconditions())
             return false;
 
-        if (RET_REF) {
-            refGraph = new GraphNode(waiting.getFirst());
+        // the first states we look at are the initial ones
+        pwList = new PassedWaitingList(!retRef);
+        pwList.add(getInitialStatePair());
+        try {
+            return explore();
+        } finally {
+            // the zones of the passed pairs are released at once, only the size of the list is kept
+            pwList.release();
+        }
+    }
+
+    private boolean explore() {
+        if (retRef) {
+            refGraph = new GraphNode(pwList.peekWaiting(), nodeId++);
             currNode = refGraph;
             treeSize++;
         }
 
-        while (!waiting.isEmpty()) {
-            StatePair curr = waiting.pop();
+        while (pwList.hasWaiting()) {
+            // mark the pair of states as visited
+            StatePair curr = pwList.popWaiting();
 
-            if (RET_REF)
+            if (retRef)
                 currNode = curr.getNode();
 
-            State left = curr.getLeft();
-            State right = curr.getRight();
-
-            // need to make deep copy
-            State newState1 = new State(left);
-            State newState2 = new State(right);
-            // mark the pair of states as visited
-            LocationPair locPair = new LocationPair(left.getLocation(), right.getLocation());
-            StatePair pair = new StatePair(newState1, newState2, currNode);
-            if (passed.containsKey(locPair))
-                passed.get(locPair).add(pair);
-            else
-                passed.put(locPair, new ArrayList<>(Collections.singletonList(pair)));
-
-            // check that for every output in TS 1 there is a corresponding output in TS 2
-            boolean holds1 = checkOutputs(left, right);
-            if (!holds1)
-                return false;
-
-            // check that for every input in TS 2 there is a corresponding input in TS 1
-            boolean holds2 = checkInputs(left, right);
-            if (!holds2)
+            List<Successor> successors = new ArrayList<>();
+            if (!checkStatePair(curr, successors))
                 return false;
 
+            for (Successor successor : successors) {
+                addToWaiting(successor);
+            }
         }
-        int passedSize = getHashMapTotalSize(passed);
         // if we got here it means refinement property holds
         return true;
     }
 
-    public int getHashMapTotalSize(Map<LocationPair, List<StatePair>> map){
-        int result = 0;
+    // Explores the state pairs on a work-stealing pool with the given number of threads. Gives the same verdict and
+    // error message as check(), but does not build the refinement graph.
+    public boolean checkParallel(int threads) {
+        retRef = false;
 
-        for (Map.Entry<LocationPair, List<StatePair>> entry : map.entrySet()) {
-            result += entry.getValue().size();
+        if (!checkPreconditions())
+            return false;
+
+        ConcurrentPassedList passed = new ConcurrentPassedList();
+        StatePair initial = getInitialStatePair();
+        passed.add(initial);
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            ExploreTask root = new ExploreTask(null, initial, passed, new AtomicBoolean(false));
+            pool.invoke(root);
+            return !root.failed.get();
+        } finally {
+            // tasks still running when one of them threw must be done before their passed list is dropped
+            pool.shutdownNow();
+            try {
+                pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            passed.release();
         }
+    }
+
+    // Checks one state pair and forks a task for every successor pair that is not covered by the passed list yet.
+    // The first task that finds a counterexample stops all the others.
+    private class ExploreTask extends CountedCompleter<Void> {
+        private static final long serialVersionUID = 1L;
+
+        private final StatePair pair;
+        private final ConcurrentPassedList passed;
+        private final AtomicBoolean failed;
+
+        private ExploreTask(ExploreTask parent, StatePair pair, ConcurrentPassedList passed, AtomicBoolean failed) {
+            super(parent);
+            this.pair = pair;
+            this.passed = passed;
+            this.failed = failed;
+        }
+
+        @Override
+        public void compute() {
+            if (!failed.get()) {
+                List<Successor> successors = new ArrayList<>();
+
+                if (!checkStatePair(pair, successors)) {
+                    failed.set(true);
+                } else {
+                    for (Successor successor : successors) {
+                        if (failed.get()) break;
+                        if (!passed.add(successor.pair)) continue;
+
+                        addToPendingCount(1);
+                        new ExploreTask(this, successor.pair, passed, failed).fork();
+                    }
+                }
+            }
+
+            tryComplete();
+        }
+    }
 
-        return result;
+    // number of state pairs kept by the last check, passed and waiting
+    public int getPassedWaitingSize() {
+        return pwList == null ? 0 : pwList.size();
+    }
+
+    // check that for every output in TS 1 there is a corresponding output in TS 2 and
+    // that for every input in TS 2 there is a corresponding input in TS 1
+    private boolean checkStatePair(StatePair pair, List<Successor> successors) {
+        State left = pair.getLeft();
+        State right = pair.getRight();
+
+        return checkOutputs(left, right, successors) && checkInputs(left, right, successors);
+    }
+
+    private void addToWaiting(Successor successor) {
+        StatePair pair = successor.pair;
+
+        if (pwList.add(pair)) {
+            if (retRef) {
+                currNode.constructSuccessor(pair, successor.edgesL, successor.edgesR, nodeId++);
+                treeSize++;
+            }
+        } else if (retRef) {
+            GraphNode supersetNode = pwList.getCovering(pair).getNode();
+            if (supersetNode != null && !currNode.equals(supersetNode)) {
+                GraphEdge edge = new GraphEdge(currNode, supersetNode, successor.edgesL, successor.edgesR, pair.getZone());
+                currNode.addSuccessor(edge);
+                supersetNode.addPredecessor(edge);
+            }
+        }
     }
 
     private StatePair buildStatePair(Transition t1, Transition t2) {
@@ -185,22 +275,35 @@ public class Refinement {
 
         // Check if the invariant of the other side does not cut solutions and if so, report failure
         // This also happens to be a delay check
-        Federation fed = Federation.dbmMinusDbm(invariantTest, target1.getInvZone());
-        if (!fed.isEmpty())
+        if (invariantTest.isValid() && !invariantTest.isSubset(target1.getInvZone()))
             return null;
 
         // This line can never be triggered, because the transition will not even get constructed if the invariant breaks it
         // The exact same check will catch it but in TransitionSystem instead
         //if (!target1.getInvZone().isValid()) return null;
 
-        target1.extrapolateMaxBounds(maxBounds);
+        extrapolate(target1, t2.getTarget().getLocation());
+
+        // both sides are in the same zone, so the pair keeps it once
+        return new StatePair(target1.getLocation(), t2.getTarget().getLocation(), target1.getInvZone());
+    }
 
-        State target2 = new State(t2.getTarget().getLocation(), target1.getInvZone());
+    // Extrapolates with the bounds of the clocks of both sides in the target locations. The guards of the right side
+    // are negated when the guards of both sides are compared, so lower and upper bounds are not told apart, as that
+    // would drop the differences between the clocks of both sides that the comparison relies on.
+    private void extrapolate(State left, SymbolicLocation right) {
+        if (!useLocalBounds) {
+            left.extrapolateMaxBounds(maxBounds);
+            return;
+        }
 
-        return new StatePair(target1, target2);
+        int[] bounds = new int[maxBounds.length];
+        ts1.getLocalMaxBounds(left.getLocation(), bounds, 1);
+        ts2.getLocalMaxBounds(right, bounds, 1 + ts1.getClocks().size());
+        left.extrapolateMaxBounds(bounds);
     }
 
-    private boolean createNewStatePairs(List<Transition> trans1, List<Transition> trans2) {
+    private boolean createNewStatePairs(List<Transition> trans1, List<Transition> trans2, List<Successor> successors) {
         boolean pairFound = false;
 
         List<Zone> gzLeft = trans1.stream().map(Transition::getGuardZone).collect(Collectors.toList());
@@ -210,7 +313,7 @@ public class Refinement {
         Federation fedR = new Federation(gzRight);
 
         // If trans2 does not satisfy all solution of trans2, return empty list which should result in refinement failure
-        if (!Federation.fedMinusFed(fedL, fedR).isEmpty())
+        if (!fedL.isSubset(fedR))
             return false;
 
         for (Transition transition1 : trans1) {
@@ -218,19 +321,7 @@ public class Refinement {
                 StatePair pair = buildStatePair(transition1, transition2);
                 if (pair != null) {
                     pairFound = true;
-                    if (!passedContainsStatePair(pair) && !waitingContainsStatePair(pair)) {
-                        waiting.add(pair);
-                        if (RET_REF) {
-                            currNode.constructSuccessor(pair, transition1.getEdges(), transition2.getEdges());
-                            treeSize++;
-                        }
-                    } else {
-                        if (RET_REF && supersetNode != null && !currNode.equals(supersetNode)) {
-                            GraphEdge edge = new GraphEdge(currNode, supersetNode, transition1.getEdges(), transition2.getEdges(), pair.getLeft().getInvZone());
-                            currNode.addSuccessor(edge);
-                            supersetNode.addPredecessor(edge);
-                        }
-                    }
+                    successors.add(new Successor(pair, transition1.getEdges(), transition2.getEdges()));
                 }
             }
         }
@@ -238,15 +329,15 @@ public class Refinement {
         return pairFound;
     }
 
-    private boolean checkInputs(State state1, State state2) {
-        return checkActions(state1, state2, true);
+    private boolean checkInputs(State state1, State state2, List<Successor> successors) {
+        return checkActions(state1, state2, true, successors);
     }
 
-    private boolean checkOutputs(State state1, State state2) {
-        return checkActions(state1, state2, false);
+    private boolean checkOutputs(State state1, State state2, List<Successor> successors) {
+        return checkActions(state1, state2, false, successors);
     }
 
-    private boolean checkActions(State state1, State state2, boolean isInput) {
+    private boolean checkActions(State state1, State state2, boolean isInput, List<Successor> successors) {
         for (Channel action : (isInput ? inputs2 : outputs1)) {
             List<Transition> transitions1 = isInput ? ts2.getNextTransitions(state2, action, allClocks)
                     : ts1.getNextTransitions(state1, action, allClocks);
@@ -268,7 +359,7 @@ public class Refinement {
                     transitions2.add(loop);
                 }
 
-                if(!(isInput ? createNewStatePairs(transitions2, transitions1) : createNewStatePairs(transitions1, transitions2)))
+                if(!(isInput ? createNewStatePairs(transitions2, transitions1, successors) : createNewStatePairs(transitions1, transitions2, successors)))
                     return false;
             }
         }
@@ -276,47 +367,11 @@ public class Refinement {
         return true;
     }
 
-    private boolean passedContainsStatePair(StatePair pair) {
-       LocationPair locPair = new LocationPair(pair.getLeft().getLocation(), pair.getRight().getLocation());
-
-        if (passed.containsKey(locPair)) {
-            return listContainsStatePair(pair, passed.get(locPair));
-        }
-
-        return false;
-    }
-
-    private boolean waitingContainsStatePair(StatePair pair) {
-        return listContainsStatePair(pair, waiting);
-    }
-
-    private boolean listContainsStatePair(StatePair pair, Iterable<StatePair> pairs) {
-        State currLeft = pair.getLeft();
-        State currRight = pair.getRight();
-
-        for (StatePair state : pairs) {
-            // check for zone inclusion
-            State passedLeft = state.getLeft();
-            State passedRight = state.getRight();
-
-            if (passedLeft.getLocation().equals(currLeft.getLocation()) &&
-                    passedRight.getLocation().equals(currRight.getLocation())) {
-                if (currLeft.getInvZone().isSubset(passedLeft.getInvZone()) &&
-                        currRight.getInvZone().isSubset(passedRight.getInvZone())) {
-                    supersetNode = state.getNode();
-                    return true;
-                }
-            }
-        }
-
-        return false;
-    }
-
     public StatePair getInitialStatePair() {
         State left = ts1.getInitialStateRef(allClocks, ts2.getInitialLocation().getInvariants());
-        State right = ts2.getInitialStateRef(allClocks, ts1.getInitialLocation().getInvariants());
 
-        return new StatePair(left, right);
+        // the initial zone is in the invariants of both initial locations, so it is the same on both sides
+        return new StatePair(left.getLocation(), ts2.getInitialLocation(), left.getInvZone());
     }
 
     public void setMaxBounds() {
@@ -327,4 +382,16 @@ public class Refinement {
 
         maxBounds = res.stream().mapToInt(i -> i).toArray();
     }
+
+    // a new state pair together with the edges leading to it, which are only needed for the refinement graph
+    private static class Successor {
+        private final StatePair pair;
+        private final List<Edge> edgesL, edgesR;
+
+        private Successor(StatePair pair, List<Edge> edgesL, List<Edge> edgesR) {
+            this.pair = pair;
+            this.edgesL = edgesL;
+            this.edgesR = edgesR;
+        }
+    }
 }
@@ -8,15 +8,10 @@ import java.util.stream.Collectors;
 public class SimpleTransitionSystem extends TransitionSystem{
 
     private final Automaton automaton;
-    private Deque<State> waiting;
-    private List<State> passed;
 
     public SimpleTransitionSystem(Automaton automaton) {
         this.automaton = automaton;
         clocks.addAll(automaton.getClocks());
-
-        this.waiting = new ArrayDeque<>();
-        this.passed = new ArrayList<>();
     }
 
     public Set<Channel> getInputs() {
@@ -43,54 +38,94 @@ public class SimpleTransitionSystem extends TransitionSystem{
         return automaton.getMaxBoundsForAllClocks();
     }
 
-    // Checks if automaton is deterministic
+    void getLocalMaxBounds(SymbolicLocation location, int[] bounds, int offset) {
+        Location actual = location instanceof SimpleLocation ? ((SimpleLocation) location).getActualLocation() : null;
+        int[] locationBounds = actual == null ? null : automaton.getLocalMaxBounds(actual);
+
+        if (locationBounds == null) {
+            super.getLocalMaxBounds(location, bounds, offset);
+            return;
+        }
+
+        System.arraycopy(locationBounds, 0, bounds, offset, locationBounds.length);
+    }
+
+    // Checks if automaton is deterministic, the verdict is shared by all systems over automata with the same content
     public boolean isDeterministicHelper() {
+        return VerdictCache.get(automaton, VerdictCache.Check.DETERMINISM, () -> explore(VerdictCache.Check.DETERMINISM));
+    }
+
+    // Checks if all outputs of the automaton are urgent
+    public boolean isImplementationHelper() {
+        return VerdictCache.get(automaton, VerdictCache.Check.OUTPUT_URGENCY, () -> explore(VerdictCache.Check.OUTPUT_URGENCY));
+    }
+
+    // Explores the reachable states once for both the determinism and the output urgency check, every state is
+    // expanded once for all channels and the transitions are used by both checks. Both verdicts are cached and the one
+    // asked for is returned. The search stops once both checks failed.
+    private boolean explore(VerdictCache.Check check) {
+        StatePassedList passed = new StatePassedList();
+        try {
+            return explore(check, passed);
+        } finally {
+            passed.release();
+        }
+    }
+
+    private boolean explore(VerdictCache.Check check, StatePassedList passed) {
+        Set<Channel> outputs = getOutputs();
         Set<Channel> actions = getActions();
+        boolean isDeterministic = true, isOutputUrgent = true;
 
-        waiting = new ArrayDeque<>();
-        passed = new ArrayList<>();
+        Deque<State> waiting = new ArrayDeque<>();
         waiting.add(getInitialState());
 
-        while (!waiting.isEmpty()) {
+        while (!waiting.isEmpty() && (isDeterministic || isOutputUrgent)) {
             State currState = new State(waiting.pop());
-            passed.add(new State(currState));
+            passed.add(currState);
 
-            for (Channel action : actions) {
+            for (Map.Entry<Channel, List<Transition>> entry : getNextTransitionsByChannel(currState).entrySet()) {
+                Channel action = entry.getKey();
+                List<Transition> tempTrans = entry.getValue();
+                if (!actions.contains(action)) continue;
 
-                List<Transition> tempTrans = getNextTransitions(currState, action);
+                if (isDeterministic && checkMovesOverlap(tempTrans))
+                    isDeterministic = false;
 
-                if (checkMovesOverlap(tempTrans))
-                    return false;
+                if (isOutputUrgent && !tempTrans.isEmpty() && outputs.contains(action) && !outputsAreUrgent(tempTrans))
+                    isOutputUrgent = false;
 
                 List<State> toAdd = tempTrans.stream().map(Transition::getTarget).
-                        filter(s -> !passedContainsState(s)).collect(Collectors.toList());
+                        filter(s -> !passed.contains(s)).collect(Collectors.toList());
 
                 waiting.addAll(toAdd);
             }
         }
-        return true;
+
+        VerdictCache.put(automaton, VerdictCache.Check.DETERMINISM, isDeterministic);
+        VerdictCache.put(automaton, VerdictCache.Check.OUTPUT_URGENCY, isOutputUrgent);
+
+        return check == VerdictCache.Check.DETERMINISM ? isDeterministic : isOutputUrgent;
     }
 
-    // Check if zones of moves for the same action overlap, that is if there is non-determinism
+    // Check if zones of moves for the same action overlap, that is if there is non-determinism. The guard zone of a
+    // transition is the source zone with its guards applied, which is what the moves are compared on. Pairs whose
+    // clock intervals are disjoint cannot overlap, so only the other pairs are intersected by the backend.
     public boolean checkMovesOverlap(List<Transition> trans) {
         if (trans.size() < 2) return false;
 
         for (int i = 0; i < trans.size(); i++) {
+            Zone zone1 = trans.get(i).getGuardZone();
+
             for (int j = i + 1; j < trans.size(); j++) {
                 if (trans.get(i).getTarget().getLocation().equals(trans.get(j).getTarget().getLocation())
                  && trans.get(i).getEdges().get(0).hasEqualUpdates(trans.get(j).getEdges().get(0)))
                     continue;
 
-                State state1 = new State(trans.get(i).getSource());
-                State state2 = new State(trans.get(j).getSource());
-
-                state1.applyGuards(trans.get(i).getGuards(), clocks);
-                state2.applyGuards(trans.get(j).getGuards(), clocks);
+                Zone zone2 = trans.get(j).getGuardZone();
 
-                if (state1.getInvZone().isValid() && state2.getInvZone().isValid()) {
-                    if(state1.getInvZone().intersects(state2.getInvZone()))
-                        return true;
-                }
+                if (zone1.intervalsOverlap(zone2) && zone1.intersects(zone2))
+                    return true;
             }
         }
         return false;
@@ -99,92 +134,14 @@ public class SimpleTransitionSystem extends TransitionSystem{
     public boolean isConsistentHelper(boolean canPrune) {
         //if (!isDeterministic())
         //    return false;
-        passed = new ArrayList<>();
-        return checkConsistency(getInitialState(), getInputs(), getOutputs(), canPrune);
-    }
-
-    public boolean checkConsistency(State currState, Set<Channel> inputs, Set<Channel> outputs, boolean canPrune) {
-
-        if (passedContainsState(currState))
-            return true;
-
-        passed.add(new State(currState));
-
-        // Check if the target of every outgoing input edge ensures independent progress
-        for (Channel channel : inputs) {
-            List<Transition> tempTrans = getNextTransitions(currState, channel);
-            for (Transition ts : tempTrans) {
-                boolean inputConsistent = checkConsistency(ts.getTarget(), inputs, outputs, canPrune);
-                if (!inputConsistent)
-                    return false;
-            }
-        }
-
-        boolean outputExisted = false;
-        // If delaying indefinitely is possible -> Prune the rest
-        if (canPrune && currState.getInvZone().canDelayIndefinitely())
-            return true;
-            // Else if independent progress does not hold through delaying indefinitely,
-            // we must check for being able to output and satisfy independent progress
-        else {
-            for (Channel channel : outputs) {
-                List<Transition> tempTrans = getNextTransitions(currState, channel);
-
-                for (Transition ts : tempTrans) {
-                    if(!outputExisted) outputExisted = true;
-                    boolean outputConsistent = checkConsistency(ts.getTarget(), inputs, outputs, canPrune);
-                    if (outputConsistent && canPrune)
-                        return true;
-                    if(!outputConsistent && !canPrune)
-                        return false;
-                }
-            }
-            if(!canPrune) {
-                if (outputExisted)
-                    return true;
-                return currState.getInvZone().canDelayIndefinitely();
-
-            }
-            // If by now no locations reached by output edges managed to satisfy independent progress check
-            // or there are no output edges from the current location -> Independent progress does not hold
-            else return false;
-        }
-    }
-
-    public boolean isImplementationHelper(){
-        Set<Channel> outputs = getOutputs();
-        Set<Channel> actions = getActions();
-
-        waiting = new ArrayDeque<>();
-        passed = new ArrayList<>();
-        waiting.add(getInitialState());
-
-        while (!waiting.isEmpty()) {
-            State currState = new State(waiting.pop());
-            passed.add(new State(currState));
-
-            for (Channel action : actions){
-                List<Transition> tempTrans = getNextTransitions(currState, action);
-
-                if(!tempTrans.isEmpty() && outputs.contains(action)){
-                    if(!outputsAreUrgent(tempTrans))
-                        return false;
-                }
-
-                List<State> toAdd = tempTrans.stream().map(Transition::getTarget).
-                        filter(s -> !passedContainsState(s)).collect(Collectors.toList());
-
-                waiting.addAll(toAdd);
-            }
-        }
-
-        return true;
+        VerdictCache.Check check = canPrune ? VerdictCache.Check.LEAST_CONSISTENCY : VerdictCache.Check.FULL_CONSISTENCY;
+        return VerdictCache.get(automaton, check, () -> checkConsistency(getInitialState(), getInputs(), getOutputs(), canPrune));
     }
 
     public boolean outputsAreUrgent(List<Transition> trans){
         for (Transition ts : trans){
             State state = new State(ts.getSource());
-            state.applyGuards(ts.getGuards(), clocks);
+            state.applyGuards(ts.getGuards(), getClockIndex());
 
             if(!state.getInvZone().isUrgent())
                 return false;
@@ -192,28 +149,32 @@ public class SimpleTransitionSystem extends TransitionSystem{
         return true;
     }
 
-    private boolean passedContainsState(State state) {
-        for (State passedState : passed) {
-            // check for zone inclusion
-            if (state.getLocation().equals(passedState.getLocation()) &&
-                    state.getInvZone().isSubset(passedState.getInvZone())) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    public List<Transition> getNextTransitions(State currentState, Channel channel, List<Clock> allClocks) {
+    public List<Transition> getNextTransitions(State currentState, Channel channel, ClockIndex allClocks) {
         List<Move> moves = getNextMoves(currentState.getLocation(), channel);
 
         return createNewTransitions(currentState, moves, allClocks);
     }
 
-    protected List<Move> getNextMoves(SymbolicLocation symLocation, Channel channel) {
-        List<Move> moves = new ArrayList<>();
+    // The transitions of the state for every channel, from a single pass over the edges leaving its location
+    Map<Channel, List<Transition>> getNextTransitionsByChannel(State currentState) {
+        Location location = ((SimpleLocation) currentState.getLocation()).getActualLocation();
+        Map<Channel, List<Transition>> transitions = new LinkedHashMap<>();
 
+        for (Map.Entry<Channel, List<Edge>> entry : automaton.getEdgesFromLocationByChannel(location).entrySet()) {
+            List<Move> moves = toMoves(currentState.getLocation(), entry.getValue());
+            transitions.put(entry.getKey(), createNewTransitions(currentState, moves, getClockIndex()));
+        }
+        return transitions;
+    }
+
+    protected List<Move> getNextMoves(SymbolicLocation symLocation, Channel channel) {
         Location location = ((SimpleLocation) symLocation).getActualLocation();
-        List<Edge> edges = automaton.getEdgesFromLocationAndSignal(location, channel);
+
+        return toMoves(symLocation, automaton.getEdgesFromLocationAndSignal(location, channel));
+    }
+
+    private static List<Move> toMoves(SymbolicLocation symLocation, List<Edge> edges) {
+        List<Move> moves = new ArrayList<>();
 
         for (Edge edge : edges) {
             SymbolicLocation target = new SimpleLocation(edge.getTarget());
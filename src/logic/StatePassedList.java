@@ -0,0 +1,40 @@
+package logic;
+
+import models.State;
+import models.SymbolicLocation;
+
+import java.util.*;
+
+// Passed states of a search over a single transition system, indexed by location. Every location keeps zones where
+// no zone is included in another one, a state is covered if its zone is included in one of them.
+// The zones are kept in an arena outside the heap, which is dropped by release().
+class StatePassedList {
+    private final Map<SymbolicLocation, ZoneArena.Handles> buckets = new HashMap<>();
+    private final ZoneArena arena = new ZoneArena();
+
+    boolean contains(State state) {
+        ZoneArena.Handles bucket = buckets.get(state.getLocation());
+        if (bucket == null) return false;
+
+        int[] dbm = state.getInvZone().getDbm();
+        for (int i = 0; i < bucket.size(); i++) {
+            if (arena.isSubset(dbm, bucket.get(i))) return true;
+        }
+        return false;
+    }
+
+    // stores a copy of the zone of the state, zones included in it are dropped
+    void add(State state) {
+        ZoneArena.Handles bucket = buckets.computeIfAbsent(state.getLocation(), k -> new ZoneArena.Handles());
+        int[] dbm = state.getInvZone().getDbm();
+
+        bucket.removeIf(handle -> arena.isSuperset(dbm, handle));
+        bucket.add(arena.store(dbm));
+    }
+
+    // drops the zones in the arena, the list is not used afterwards
+    void release() {
+        buckets.clear();
+        arena.release();
+    }
+}
@@ -7,7 +7,13 @@ import java.util.stream.Collectors;
 
 // parent class for all TS's, so we can use it with regular TS's, composed TS's etc.
 public abstract class TransitionSystem {
+    // check consistency on the composed system instead of on every component, e.g. -Dconsistency.composed=true
+    public static final String COMPOSED_CONSISTENCY_PROPERTY = "consistency.composed";
     final List<Clock> clocks;
+    private volatile ClockIndex clockIndex;
+    private volatile int[] maxBounds;
+    // composite locations of this system, every distinct tuple of locations exists once
+    final LocationTable locationTable = new LocationTable();
     private StringBuilder lastErr = new StringBuilder();
 
     TransitionSystem() {
@@ -18,15 +24,21 @@ public abstract class TransitionSystem {
         return clocks;
     }
 
+    // the clocks are added by the constructors of the subclasses, so the index is built on first use
+    public ClockIndex getClockIndex() {
+        if (clockIndex == null) clockIndex = new ClockIndex(clocks);
+        return clockIndex;
+    }
+
     public State getInitialState() {
         Zone zone = new Zone(clocks.size() + 1, true);
         State state = new State(getInitialLocation(), zone);
-        state.applyInvariants(clocks);
+        state.applyInvariants(getClockIndex());
 
         return state;
     }
 
-    public State getInitialStateRef(List<Clock> allClocks, List<Guard> invs) {
+    public State getInitialStateRef(ClockIndex allClocks, List<Guard> invs) {
         Zone zone = new Zone(allClocks.size() + 1, true);
         State state = new State(getInitialLocation(), zone);
         state.applyInvariants(allClocks);
@@ -39,10 +51,14 @@ public abstract class TransitionSystem {
 
     SymbolicLocation getInitialLocation(TransitionSystem[] systems) {
         // build ComplexLocation with initial location from each TransitionSystem
-        return new ComplexLocation(Arrays.stream(systems).map(TransitionSystem::getInitialLocation).collect(Collectors.toList()));
+        return locationTable.intern(Arrays.stream(systems).map(TransitionSystem::getInitialLocation).collect(Collectors.toList()));
+    }
+
+    public LocationTable getLocationTable() {
+        return locationTable;
     }
 
-    List<Transition> createNewTransitions(State currentState, List<Move> moves, List<Clock> allClocks) {
+    List<Transition> createNewTransitions(State currentState, List<Move> moves, ClockIndex allClocks) {
         List<Transition> transitions = new ArrayList<>();
 
         // loop through moves
@@ -102,11 +118,12 @@ public abstract class TransitionSystem {
         List<String> nondetermTs = new ArrayList<>();
 
         List<SimpleTransitionSystem> systems = getSystems();
+        List<Boolean> verdicts = systems.parallelStream().map(SimpleTransitionSystem::isDeterministicHelper).collect(Collectors.toList());
 
-        for (SimpleTransitionSystem ts : systems){
-            if(!ts.isDeterministicHelper()){
+        for (int i = 0; i < systems.size(); i++){
+            if(!verdicts.get(i)){
                 isDeterministic = false;
-                nondetermTs.add(ts.getName());
+                nondetermTs.add(systems.get(i).getName());
             }
         }
         if(!isDeterministic) buildErrMessage(nondetermTs, "non-deterministic");
@@ -128,10 +145,23 @@ public abstract class TransitionSystem {
 
         List<SimpleTransitionSystem> systems = getSystems();
 
-        for (SimpleTransitionSystem ts : systems){
-            if(!ts.isConsistentHelper(canPrune)) {
+        if (systems.size() > 1 && Boolean.getBoolean(COMPOSED_CONSISTENCY_PROPERTY)) {
+            // the game is played on the whole system, so it cannot tell which components are to blame
+            Set<Channel> outputs = new HashSet<>(getOutputs());
+            outputs.addAll(getSyncs());
+
+            if (!checkConsistency(getInitialState(), getInputs(), outputs, canPrune)) {
                 isConsistent = false;
-                inconsistentTs.add(ts.getName());
+                inconsistentTs.addAll(systems.stream().map(SimpleTransitionSystem::getName).collect(Collectors.toList()));
+            }
+        } else {
+            List<Boolean> verdicts = systems.parallelStream().map(ts -> ts.isConsistentHelper(canPrune)).collect(Collectors.toList());
+
+            for (int i = 0; i < systems.size(); i++){
+                if(!verdicts.get(i)) {
+                    isConsistent = false;
+                    inconsistentTs.add(systems.get(i).getName());
+                }
             }
         }
 
@@ -144,16 +174,128 @@ public abstract class TransitionSystem {
         boolean isImpl = true;
         List<String> nonImpl = new ArrayList<>();
         List<SimpleTransitionSystem> systems = getSystems();
+        List<Boolean> verdicts = systems.parallelStream().map(SimpleTransitionSystem::isImplementationHelper).collect(Collectors.toList());
 
-        for (SimpleTransitionSystem ts : systems){
-            if(!ts.isImplementationHelper())
+        for (int i = 0; i < systems.size(); i++){
+            if(!verdicts.get(i)) {
                 isImpl = false;
-            nonImpl.add(ts.getName());
+                nonImpl.add(systems.get(i).getName());
+            }
         }
         if(!isImpl) buildErrMessage(nonImpl, "not output urgent");
         return isImpl && isCons;
     }
 
+    // Checks that independent progress holds in every state reachable from the initial one. The search is depth first
+    // on an explicit stack, with a frame per state being checked, and visits the states in the same order as a
+    // recursive search would. A state covered by a passed one counts as consistent.
+    boolean checkConsistency(State initial, Set<Channel> inputs, Set<Channel> outputs, boolean canPrune) {
+        StatePassedList passed = new StatePassedList();
+        try {
+            return checkConsistency(initial, inputs, outputs, canPrune, passed);
+        } finally {
+            passed.release();
+        }
+    }
+
+    private boolean checkConsistency(State initial, Set<Channel> inputs, Set<Channel> outputs, boolean canPrune,
+                                     StatePassedList passed) {
+        Deque<ConsistencyFrame> stack = new ArrayDeque<>();
+
+        passed.add(initial);
+        stack.push(new ConsistencyFrame(initial, inputs));
+
+        // result of the last finished frame, handed to the frame below it
+        Boolean childResult = null;
+
+        while (!stack.isEmpty()) {
+            ConsistencyFrame frame = stack.peek();
+            Boolean result = null;
+
+            if (childResult != null) {
+                if (!frame.isOutputPhase) {
+                    // Check if the target of every outgoing input edge ensures independent progress
+                    if (!childResult) result = false;
+                } else {
+                    if (childResult && canPrune) result = true;
+                    if (!childResult && !canPrune) result = false;
+                }
+                childResult = null;
+            }
+
+            while (result == null) {
+                Transition next = frame.nextTransition(this);
+
+                if (next != null) {
+                    if (frame.isOutputPhase) frame.outputExisted = true;
+
+                    State target = next.getTarget();
+                    if (passed.contains(target)) {
+                        if (frame.isOutputPhase && canPrune) result = true;
+                        continue;
+                    }
+
+                    passed.add(target);
+                    stack.push(new ConsistencyFrame(target, inputs));
+                    break;
+                }
+
+                if (!frame.isOutputPhase) {
+                    // If delaying indefinitely is possible -> Prune the rest
+                    if (canPrune && frame.state.getInvZone().canDelayIndefinitely()) {
+                        result = true;
+                    } else {
+                        // Else if independent progress does not hold through delaying indefinitely,
+                        // we must check for being able to output and satisfy independent progress
+                        frame.startOutputs(outputs);
+                    }
+                } else if (!canPrune) {
+                    result = frame.outputExisted || frame.state.getInvZone().canDelayIndefinitely();
+                } else {
+                    // If by now no locations reached by output edges managed to satisfy independent progress check
+                    // or there are no output edges from the current location -> Independent progress does not hold
+                    result = false;
+                }
+            }
+
+            if (result != null) {
+                stack.pop();
+                childResult = result;
+            }
+        }
+
+        return childResult;
+    }
+
+    // a state of the consistency check together with the transitions still to be checked from it
+    private static class ConsistencyFrame {
+        private final State state;
+        private Iterator<Channel> channels;
+        private Iterator<Transition> transitions = Collections.emptyIterator();
+        private boolean isOutputPhase = false;
+        private boolean outputExisted = false;
+
+        private ConsistencyFrame(State state, Set<Channel> inputs) {
+            this.state = state;
+            this.channels = inputs.iterator();
+        }
+
+        private void startOutputs(Set<Channel> outputs) {
+            isOutputPhase = true;
+            channels = outputs.iterator();
+            transitions = Collections.emptyIterator();
+        }
+
+        // the next transition of the current phase, or null when there are none left
+        private Transition nextTransition(TransitionSystem ts) {
+            while (!transitions.hasNext()) {
+                if (!channels.hasNext()) return null;
+                transitions = ts.getNextTransitions(state, channels.next()).iterator();
+            }
+            return transitions.next();
+        }
+    }
+
     public List<Integer> getMaxBounds(){
         List<SimpleTransitionSystem> systems = getSystems();
         List<Integer> res = new ArrayList<>();
@@ -164,11 +306,35 @@ public abstract class TransitionSystem {
         return res;
     }
 
+    // Writes the largest constants the clocks of this system are compared to in the location to bounds, from offset
+    // on in the order of getClocks(). Systems without a bound analysis of their locations use the max bounds of their
+    // clocks.
+    void getLocalMaxBounds(SymbolicLocation location, int[] bounds, int offset) {
+        if (maxBounds == null) maxBounds = getMaxBounds().stream().mapToInt(i -> i).toArray();
+
+        System.arraycopy(maxBounds, 0, bounds, offset, maxBounds.length);
+    }
+
+    // the bounds in a composite location are the bounds of the systems in their own locations
+    void getComposedMaxBounds(TransitionSystem[] systems, SymbolicLocation location, int[] bounds, int offset) {
+        List<SymbolicLocation> locations = location instanceof ComplexLocation ? ((ComplexLocation) location).getLocations() : null;
+
+        if (locations == null || locations.size() != systems.length) {
+            getLocalMaxBounds(location, bounds, offset);
+            return;
+        }
+
+        for (int i = 0; i < systems.length; i++) {
+            systems[i].getLocalMaxBounds(locations.get(i), bounds, offset);
+            offset += systems[i].getClocks().size();
+        }
+    }
+
     public List<Transition> getNextTransitions(State currentState, Channel channel){
-        return getNextTransitions(currentState, channel, clocks);
+        return getNextTransitions(currentState, channel, getClockIndex());
     }
 
-    public abstract List<Transition> getNextTransitions(State currentState, Channel channel, List<Clock> allClocks);
+    public abstract List<Transition> getNextTransitions(State currentState, Channel channel, ClockIndex allClocks);
 
     protected abstract List<Move> getNextMoves(SymbolicLocation location, Channel channel);
 
@@ -181,16 +347,16 @@ public abstract class TransitionSystem {
                 SymbolicLocation source, target;
 
                 if (toNest) {
-                    source = new ComplexLocation(new ArrayList<>(Arrays.asList(move1.getSource(), move2.getSource())));
-                    target = new ComplexLocation(new ArrayList<>(Arrays.asList(move1.getTarget(), move2.getTarget())));
+                    source = locationTable.intern(Arrays.asList(move1.getSource(), move2.getSource()));
+                    target = locationTable.intern(Arrays.asList(move1.getTarget(), move2.getTarget()));
                 } else {
                     List<SymbolicLocation> newSourceLoc = new ArrayList<>(((ComplexLocation) move1.getSource()).getLocations());
                     newSourceLoc.add(move2.getSource());
-                    source = new ComplexLocation(newSourceLoc);
+                    source = locationTable.intern(newSourceLoc);
 
                     List<SymbolicLocation> newTargetLoc = new ArrayList<>(((ComplexLocation) move1.getTarget()).getLocations());
                     newTargetLoc.add(move2.getTarget());
-                    target = new ComplexLocation(newTargetLoc);
+                    target = locationTable.intern(newTargetLoc);
                 }
 
                 List<Edge> edges = new ArrayList<>(move1.getEdges());
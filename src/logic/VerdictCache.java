@@ -0,0 +1,39 @@
+package logic;
+
+import models.Automaton;
+
+import java.util.*;
+import java.util.function.BooleanSupplier;
+
+// Verdicts of the checks on single automata, keyed by the content of the automaton. Components of a loaded project are
+// checked at most once, however many queries and refinement preconditions use them. Entries go away together with
+// the automata they belong to.
+class VerdictCache {
+    enum Check { DETERMINISM, OUTPUT_URGENCY, LEAST_CONSISTENCY, FULL_CONSISTENCY }
+
+    private static final Map<Automaton, Map<Check, Boolean>> verdicts = Collections.synchronizedMap(new WeakHashMap<>());
+
+    // Returns the cached verdict, or computes and stores it. The check runs outside the lock, so concurrent queries
+    // on the same automaton may both run it.
+    static boolean get(Automaton automaton, Check check, BooleanSupplier compute) {
+        Map<Check, Boolean> known = verdicts.get(automaton);
+        if (known != null) {
+            synchronized (known) {
+                Boolean verdict = known.get(check);
+                if (verdict != null) return verdict;
+            }
+        }
+
+        boolean verdict = compute.getAsBoolean();
+        put(automaton, check, verdict);
+        return verdict;
+    }
+
+    // stores a verdict found as a by-product of another check
+    static void put(Automaton automaton, Check check, boolean verdict) {
+        Map<Check, Boolean> known = verdicts.computeIfAbsent(automaton, k -> new EnumMap<>(Check.class));
+        synchronized (known) {
+            known.put(check, verdict);
+        }
+    }
+}
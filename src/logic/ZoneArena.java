@@ -0,0 +1,177 @@
+package logic;
+
+import lib.MinGraph;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+// Stored zones of one search, packed one after the other into direct buffers outside the heap and addressed by int
+// handles, so millions of passed states do not become millions of small arrays for the garbage collector.
+// Segments start small and double up to SEGMENT_INTS, a handle is the index of its segment followed by the offset in
+// it. Zones are never freed one by one, release() drops all segments of the search at once.
+// A zone is stored as the constraints of its minimal graph when that is smaller than its dbm, which it is for most
+// zones on more than a few clocks. A stored zone starts with the number of its constraints, or FULL before a dbm.
+// Storing is synchronized, reading a zone is safe from any thread that got its handle after it was stored.
+class ZoneArena {
+    private static final int SEGMENT_BITS = 20;
+    private static final int SEGMENT_INTS = 1 << SEGMENT_BITS;
+    private static final int FIRST_SEGMENT_BITS = 12;
+    private static final int MAX_SEGMENTS = 1 << (31 - SEGMENT_BITS);
+    private static final int FULL = -1;
+    // scratch space for expanding stored zones, the constraints read from a segment and the dbm they expand to
+    private static final ThreadLocal<int[][]> SCRATCH = ThreadLocal.withInitial(() -> new int[][]{new int[0], new int[0]});
+
+    private volatile IntBuffer[] segments = new IntBuffer[0];
+    private int used;
+
+    // Stores the closed, non-empty dbm in the arena and returns its handle
+    int store(int[] dbm) {
+        int[] constraints = MinGraph.reduce(dbm, dimension(dbm.length));
+
+        if (constraints.length < dbm.length) return store(constraints.length / 2, constraints);
+        return store(FULL, dbm);
+    }
+
+    private synchronized int store(int header, int[] values) {
+        int length = 1 + values.length;
+        if (length > SEGMENT_INTS)
+            throw new IllegalArgumentException("A zone of " + length + " ints does not fit in a segment of the arena");
+
+        IntBuffer[] current = segments;
+        if (current.length == 0 || used + length > current[current.length - 1].capacity()) {
+            current = addSegment(current, length);
+        }
+
+        int index = current.length - 1;
+        IntBuffer segment = current[index].duplicate();
+        segment.position(used);
+        segment.put(header);
+        segment.put(values);
+
+        int handle = (index << SEGMENT_BITS) | used;
+        used += length;
+        return handle;
+    }
+
+    private IntBuffer[] addSegment(IntBuffer[] current, int needed) {
+        if (current.length == MAX_SEGMENTS) throw new IllegalStateException("The zone arena is full");
+
+        int capacity = Math.min(SEGMENT_INTS, Math.max(1 << Math.min(FIRST_SEGMENT_BITS + current.length, SEGMENT_BITS), needed));
+        IntBuffer segment = ByteBuffer.allocateDirect(capacity * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer();
+
+        IntBuffer[] result = Arrays.copyOf(current, current.length + 1);
+        result[current.length] = segment;
+        segments = result;
+        used = 0;
+        return result;
+    }
+
+    // Whether the dbm is included in the stored one, both of the same dimension and closed. A closed dbm is included
+    // in a zone if it satisfies the constraints of its minimal graph, so a compressed zone is not expanded.
+    boolean isSubset(int[] dbm, int handle) {
+        IntBuffer segment = segments[handle >>> SEGMENT_BITS];
+        int offset = (handle & (SEGMENT_INTS - 1)) + 1;
+        int header = segment.get(offset - 1);
+
+        if (header == FULL) {
+            for (int i = 0; i < dbm.length; i++) {
+                if (dbm[i] > segment.get(offset + i)) return false;
+            }
+            return true;
+        }
+
+        for (int k = 0; k < header; k++) {
+            if (dbm[segment.get(offset + 2 * k)] > segment.get(offset + 2 * k + 1)) return false;
+        }
+        return true;
+    }
+
+    // Whether the stored dbm is included in the given one, both of the same dimension and closed
+    boolean isSuperset(int[] dbm, int handle) {
+        IntBuffer segment = segments[handle >>> SEGMENT_BITS];
+        int offset = (handle & (SEGMENT_INTS - 1)) + 1;
+        int header = segment.get(offset - 1);
+
+        if (header == FULL) {
+            for (int i = 0; i < dbm.length; i++) {
+                if (segment.get(offset + i) > dbm[i]) return false;
+            }
+            return true;
+        }
+
+        // the constraints of a minimal graph are bounds of the closed zone, so one that is looser rejects without
+        // expanding, which is the common case when a new zone is compared to the stored ones
+        for (int k = 0; k < header; k++) {
+            if (segment.get(offset + 2 * k + 1) > dbm[segment.get(offset + 2 * k)]) return false;
+        }
+
+        int[] stored = expand(segment, offset, header, dbm.length);
+        for (int i = 0; i < dbm.length; i++) {
+            if (stored[i] > dbm[i]) return false;
+        }
+        return true;
+    }
+
+    private static int[] expand(IntBuffer segment, int offset, int count, int length) {
+        int[][] scratch = SCRATCH.get();
+        if (scratch[0].length < 2 * count) scratch[0] = new int[2 * count];
+        if (scratch[1].length < length) scratch[1] = new int[length];
+
+        int[] constraints = scratch[0];
+        for (int i = 0; i < 2 * count; i++) {
+            constraints[i] = segment.get(offset + i);
+        }
+
+        MinGraph.expand(constraints, 0, count, scratch[1], dimension(length));
+        return scratch[1];
+    }
+
+    private static int dimension(int length) {
+        return (int) Math.sqrt(length);
+    }
+
+    // bytes taken by the segments outside the heap
+    long getAllocatedBytes() {
+        long bytes = 0;
+        for (IntBuffer segment : segments) {
+            bytes += (long) segment.capacity() * Integer.BYTES;
+        }
+        return bytes;
+    }
+
+    // Drops all stored zones at once, their memory is freed when the buffers are collected
+    synchronized void release() {
+        segments = new IntBuffer[0];
+        used = 0;
+    }
+
+    // The handles of the zones stored for one location, without boxing them
+    static class Handles {
+        private int[] handles = new int[4];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        int get(int i) {
+            return handles[i];
+        }
+
+        void add(int handle) {
+            if (size == handles.length) handles = Arrays.copyOf(handles, 2 * size);
+            handles[size++] = handle;
+        }
+
+        void removeIf(IntPredicate filter) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (!filter.test(handles[i])) handles[kept++] = handles[i];
+            }
+            size = kept;
+        }
+    }
+}
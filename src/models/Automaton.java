@@ -10,6 +10,14 @@ public class Automaton {
     private final List<Clock> clocks;
     private Set<Channel> inputAct, outputAct, actions;
     private Location initLoc;
+    // outgoing edges per location and channel, built once the edges are final
+    private Map<Location, Map<Channel, List<Edge>>> edgeIndex;
+    // hash of the content, computed on first use as the automaton does not change after construction
+    private int hash;
+    // computed on first use, unless the automaton was loaded compiled
+    private volatile List<Integer> maxBounds;
+    // bounds of the clocks per location, computed on first use
+    private volatile Map<Location, int[]> localBounds;
 
     public Automaton(String name, List<Location> locations, List<Edge> edges, List<Clock> clocks) {
         this(name, locations, edges, clocks, true);
@@ -34,6 +42,15 @@ public class Automaton {
             addTargetInvariantToEdges();
             makeInputEnabled();
         }
+
+        buildEdgeIndex();
+    }
+
+    // An automaton that was compiled before, its edges already include the target invariants and the input enabling
+    // edges, and the max bounds of its clocks are known
+    public Automaton(String name, List<Location> locations, List<Edge> edges, List<Clock> clocks, List<Integer> maxBounds) {
+        this(name, locations, edges, clocks, false);
+        this.maxBounds = Collections.unmodifiableList(new ArrayList<>(maxBounds));
     }
 
     // Copy constructor
@@ -62,9 +79,16 @@ public class Automaton {
         this.inputAct = copy.inputAct;
         this.outputAct = copy.outputAct;
         this.actions = copy.actions;
+
+        buildEdgeIndex();
     }
 
     public List<Integer> getMaxBoundsForAllClocks(){
+        if (maxBounds == null) maxBounds = Collections.unmodifiableList(computeMaxBounds());
+        return new ArrayList<>(maxBounds);
+    }
+
+    private List<Integer> computeMaxBounds(){
         List<Integer> res = new ArrayList<>(Collections.nCopies(clocks.size(), 0));
 
         for(int i = 0; i < clocks.size(); i++) {
@@ -81,15 +105,76 @@ public class Automaton {
         return res;
     }
 
+    // The largest constant each clock is compared to in a location, in the order of the clocks. A location gets the
+    // constants of its invariant and its outgoing edges, and those of the locations it leads to for the clocks the edge
+    // does not reset. Null for locations of other automata.
+    // The array is shared and must not be changed.
+    public int[] getLocalMaxBounds(Location location) {
+        if (localBounds == null) localBounds = computeLocalBounds();
+        return localBounds.get(location);
+    }
+
+    private Map<Location, int[]> computeLocalBounds() {
+        Map<Location, int[]> bounds = new IdentityHashMap<>();
+        for (Location location : locations) {
+            int[] locationBounds = new int[clocks.size()];
+            addBounds(locationBounds, location.getInvariant());
+            bounds.put(location, locationBounds);
+        }
+
+        for (Edge edge : edges) {
+            int[] sourceBounds = bounds.get(edge.getSource());
+            if (sourceBounds != null) addBounds(sourceBounds, edge.getGuards());
+        }
+
+        // the constants of a location matter in every location that reaches it without resetting the clock
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+
+            for (Edge edge : edges) {
+                int[] sourceBounds = bounds.get(edge.getSource());
+                int[] targetBounds = bounds.get(edge.getTarget());
+                if (sourceBounds == null || targetBounds == null) continue;
+
+                for (int i = 0; i < clocks.size(); i++) {
+                    if (targetBounds[i] > sourceBounds[i] && !isReset(edge, clocks.get(i))) {
+                        sourceBounds[i] = targetBounds[i];
+                        changed = true;
+                    }
+                }
+            }
+        }
+
+        return bounds;
+    }
+
+    private void addBounds(int[] bounds, List<Guard> guards) {
+        for (Guard guard : guards) {
+            int i = clocks.indexOf(guard.getClock());
+            if (i < 0) continue;
+
+            bounds[i] = Math.max(bounds[i], guard.getLowerBound());
+            if (guard.getUpperBound() != Integer.MAX_VALUE)
+                bounds[i] = Math.max(bounds[i], guard.getUpperBound());
+        }
+    }
+
+    private static boolean isReset(Edge edge, Clock clock) {
+        for (Update update : edge.getUpdates()) {
+            if (update.getClock().equals(clock)) return true;
+        }
+        return false;
+    }
+
     private void makeInputEnabled() {
         if (clocks.size() > 0) {
+            ClockIndex clockIndex = new ClockIndex(clocks);
+
             for (Location loc : locations) {
                 // build the zone for this location
                 Zone zone = new Zone(clocks.size() + 1, true);
-                List<Guard> invariants = loc.getInvariant();
-                for (Guard invariant : invariants) {
-                    zone.buildConstraintsForGuard(invariant, clocks.indexOf(invariant.getClock()) + 1);
-                }
+                zone.buildConstraintsForGuards(loc.getInvariant(), clockIndex);
                 Federation fullFed = new Federation(new ArrayList<>(Collections.singletonList(zone)));
 
                 // loop through all inputs
@@ -99,10 +184,7 @@ public class Automaton {
                     List<Zone> zones = new ArrayList<>();
                     for (Edge edge : inputEdges) {
                         Zone guardZone = new Zone(zone);
-
-                        for (Guard g : edge.getGuards()) {
-                            guardZone.buildConstraintsForGuard(g, clocks.indexOf(g.getClock()) + 1);
-                        }
+                        guardZone.buildConstraintsForGuards(edge.getGuards(), clockIndex);
                         zones.add(guardZone);
                     }
                     Federation fed = new Federation(zones);
@@ -147,9 +229,54 @@ public class Automaton {
     }
 
     public List<Edge> getEdgesFromLocationAndSignal(Location loc, Channel signal) {
-        List<Edge> resultEdges = getEdgesFromLocation(loc);
+        Map<Channel, List<Edge>> locationEdges = edgeIndex == null ? null : edgeIndex.get(loc);
 
-        return resultEdges.stream().filter(edge -> edge.getChannel().getName().equals(signal.getName())).collect(Collectors.toList());
+        // the index is built at the end of the constructor, and only knows the locations of this automaton
+        if (locationEdges == null) {
+            return getEdgesFromLocation(loc).stream().filter(edge -> edge.getChannel().equals(signal)).collect(Collectors.toList());
+        }
+
+        return locationEdges.getOrDefault(signal, Collections.emptyList());
+    }
+
+    // the edges leaving the location, grouped by their channel
+    public Map<Channel, List<Edge>> getEdgesFromLocationByChannel(Location loc) {
+        Map<Channel, List<Edge>> locationEdges = edgeIndex == null ? null : edgeIndex.get(loc);
+
+        if (locationEdges == null) {
+            return getEdgesFromLocation(loc).stream().collect(Collectors.groupingBy(Edge::getChannel));
+        }
+
+        return Collections.unmodifiableMap(locationEdges);
+    }
+
+    // Groups the edges by source location and channel. Locations are looked up by identity, as the edges refer to the
+    // location objects of this automaton. The self loops of universal locations are created here once.
+    private void buildEdgeIndex() {
+        Map<Location, Map<Channel, List<Edge>>> index = new IdentityHashMap<>();
+
+        for (Location loc : locations) {
+            Map<Channel, List<Edge>> locationEdges = new HashMap<>();
+            if (loc.isUniversal()) {
+                for (Edge loop : getEdgesFromLocation(loc)) {
+                    locationEdges.computeIfAbsent(loop.getChannel(), c -> new ArrayList<>()).add(loop);
+                }
+            }
+            index.put(loc, locationEdges);
+        }
+
+        for (Edge edge : edges) {
+            Map<Channel, List<Edge>> locationEdges = index.get(edge.getSource());
+            if (locationEdges == null || edge.getSource().isUniversal()) continue;
+
+            locationEdges.computeIfAbsent(edge.getChannel(), c -> new ArrayList<>()).add(edge);
+        }
+
+        for (Map<Channel, List<Edge>> locationEdges : index.values()) {
+            locationEdges.replaceAll((channel, channelEdges) -> Collections.unmodifiableList(channelEdges));
+        }
+
+        edgeIndex = index;
     }
 
     private void setActions(List<Edge> edges) {
@@ -170,6 +297,14 @@ public class Automaton {
         }
     }
 
+    public List<Location> getLocations() {
+        return Collections.unmodifiableList(locations);
+    }
+
+    public List<Edge> getEdges() {
+        return Collections.unmodifiableList(edges);
+    }
+
     public List<Clock> getClocks() {
         return clocks;
     }
@@ -216,6 +351,11 @@ public class Automaton {
 
     @Override
     public int hashCode() {
-        return Objects.hash(name, locations, edges, clocks, inputAct, outputAct, initLoc);
+        int h = hash;
+        if (h == 0) {
+            h = Objects.hash(name, locations, edges, clocks, inputAct, outputAct, initLoc);
+            hash = h;
+        }
+        return h;
     }
 }
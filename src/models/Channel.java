@@ -1,21 +1,33 @@
 package models;
 
-import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Channel {
+    // channels synchronise by name, so every name is interned to one id shared by all automata
+    private static final ConcurrentMap<String, Integer> IDS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
     private final String name;
+    private final int id;
 
     public Channel(String name) {
         this.name = name;
+        this.id = IDS.computeIfAbsent(name, n -> NEXT_ID.getAndIncrement());
     }
 
     public String getName() {
         return name;
     }
 
+    public int getId() {
+        return id;
+    }
+
     @Override
     public int hashCode() {
-        return Objects.hash(name);
+        return id;
     }
 
     @Override
@@ -23,7 +35,7 @@ public class Channel {
         if (this == o) return true;
         if (!(o instanceof Channel)) return false;
         Channel channel = (Channel) o;
-        return name.equals(channel.name);
+        return id == channel.id;
     }
 
     @Override
@@ -1,21 +1,32 @@
 package models;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class Clock {
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
 
     private final String name;
+    // every clock object is a different clock, even if the names match, so ids are given per object
+    private final int id;
 
     public Clock(String name) {
         this.name = name;
+        this.id = NEXT_ID.getAndIncrement();
     }
 
     public Clock(Clock copy){
         this.name = copy.name;
+        this.id = NEXT_ID.getAndIncrement();
     }
 
     public String getName() {
         return name;
     }
 
+    public int getId() {
+        return id;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -24,6 +35,11 @@ public class Clock {
         return name.equals(clock.getName());
     }
 
+    @Override
+    public int hashCode() {
+        return name.hashCode();
+    }
+
     @Override
     public String toString() {
         return "Clock{" +
@@ -0,0 +1,63 @@
+package models;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Position of every clock of a system in its dbms, built once per clock list so that applying a guard or an update
+// looks up the clock by its id instead of searching the list. Index 0 is the reference clock, so clocks that are
+// not part of the list map to 0.
+// Clock ids are global and only grow, so the clocks of a system created far apart can have ids far apart. The array
+// indexed by id is only used while the ids are dense enough, otherwise the positions are kept in a map.
+public class ClockIndex {
+    private static final int MAX_SPREAD = 4;
+
+    private final List<Clock> clocks;
+    private final int minId;
+    private final int[] indices;
+    private final Map<Integer, Integer> sparseIndices;
+
+    public ClockIndex(List<Clock> clocks) {
+        this.clocks = Collections.unmodifiableList(new ArrayList<>(clocks));
+
+        int min = Integer.MAX_VALUE, max = -1;
+        for (Clock clock : clocks) {
+            min = Math.min(min, clock.getId());
+            max = Math.max(max, clock.getId());
+        }
+
+        this.minId = clocks.isEmpty() ? 0 : min;
+        long range = clocks.isEmpty() ? 0 : (long) max - min + 1;
+
+        if (range <= MAX_SPREAD * (long) clocks.size() + 16) {
+            this.indices = new int[(int) range];
+            this.sparseIndices = null;
+        } else {
+            this.indices = null;
+            this.sparseIndices = new HashMap<>();
+        }
+
+        // like the list search this replaces, the first occurrence of a clock wins
+        for (int i = clocks.size() - 1; i >= 0; i--) {
+            if (indices != null) indices[clocks.get(i).getId() - minId] = i + 1;
+            else sparseIndices.put(clocks.get(i).getId(), i + 1);
+        }
+    }
+
+    public int indexOf(Clock clock) {
+        if (indices == null) return sparseIndices.getOrDefault(clock.getId(), 0);
+
+        int i = clock.getId() - minId;
+        return i >= 0 && i < indices.length ? indices[i] : 0;
+    }
+
+    public int size() {
+        return clocks.size();
+    }
+
+    public List<Clock> getClocks() {
+        return clocks;
+    }
+}
@@ -1,18 +1,32 @@
 package models;
 
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
 import java.util.stream.Collectors;
 
 public class ComplexLocation extends SymbolicLocation {
     private final List<SymbolicLocation> locations;
-    private List<Guard> invariants;
+    private final List<Guard> invariants;
+    private final int hash;
+    // the table the location is interned in and its id there, null and -1 for locations created outside a table
+    private final LocationTable table;
+    private final int id;
 
     public ComplexLocation(List<SymbolicLocation> locations) {
-        this.locations = locations;
-        invariants = locations.stream().map(SymbolicLocation::getInvariants).flatMap(List::stream).collect(Collectors.toList());
+        this(locations, null, -1);
+    }
+
+    ComplexLocation(List<SymbolicLocation> locations, LocationTable table, int id) {
+        this(locations, locations.stream().map(SymbolicLocation::getInvariants).flatMap(List::stream).collect(Collectors.toList()), table, id);
+    }
+
+    private ComplexLocation(List<SymbolicLocation> locations, List<Guard> invariants, LocationTable table, int id) {
+        this.locations = Collections.unmodifiableList(locations);
+        this.invariants = invariants;
+        this.hash = locations.hashCode();
+        this.table = table;
+        this.id = id;
     }
 
     public List<SymbolicLocation> getLocations() {
@@ -23,8 +37,13 @@ public class ComplexLocation extends SymbolicLocation {
         return invariants;
     }
 
-    public void removeInvariants() {
-        invariants = new ArrayList<>();
+    public int getId() {
+        return id;
+    }
+
+    // the same tuple of locations without any invariant, equal to this location
+    public ComplexLocation withoutInvariants() {
+        return new ComplexLocation(locations, new ArrayList<>(), null, -1);
     }
 
     @Override
@@ -32,16 +51,18 @@ public class ComplexLocation extends SymbolicLocation {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ComplexLocation that = (ComplexLocation) o;
-        return Arrays.equals(locations.toArray(), that.locations.toArray());
+        // a tuple is interned only once per table
+        if (table != null && table == that.table) return false;
+        return hash == that.hash && locations.equals(that.locations);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(locations);
+        return hash;
     }
 
     @Override
     public String toString() {
         return "" + locations;
     }
-}
\ No newline at end of file
+}
@@ -132,6 +132,6 @@ public class Edge {
 
     @Override
     public int hashCode() {
-        return Objects.hash(source, target, chan, isInput, guards, updates);
+        return Objects.hash(source, target, chan, isInput, guards, Arrays.hashCode(updates));
     }
 }
@@ -1,12 +1,19 @@
 package models;
 
-import lib.DBMLib;
+import lib.DbmBackend;
+import lib.DbmBackends;
+import lib.DbmFederation;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+// A union of zones. Federation operations run on the backend representation of the federation, which is only built
+// when an operation needs it, and results are only turned back into zones when getZones is called.
 public class Federation {
+    private static final DbmBackend DBM = DbmBackends.get();
     private List<Zone> zones;
+    private DbmFederation fed;
 
     public Federation(int[][] dbms) {
         this.zones = new ArrayList<>();
@@ -17,35 +24,74 @@ public class Federation {
         }
     }
 
+    // the zones are copied, so changing them later does not change the federation
+    public Federation(List<Zone> zones) {
+        this.zones = new ArrayList<>();
+        for (Zone zone : zones) {
+            this.zones.add(new Zone(zone));
+        }
+    }
+
+    private Federation(DbmFederation fed) {
+        this.fed = fed;
+    }
+
     public boolean isEmpty(){
-        return zones.isEmpty();
+        return zones != null ? zones.isEmpty() : fed.isEmpty();
     }
 
     public int size(){
-        return zones.size();
+        return zones != null ? zones.size() : fed.size();
     }
 
-    public Federation(List<Zone> zones) {
-        this.zones = new ArrayList<>(zones);
+    // the zones must not be changed, the backend representation is built from them once
+    public List<Zone> getZones() {
+        if (zones == null) {
+            zones = new ArrayList<>();
+            for (int[] dbm : fed.getDbms()) {
+                zones.add(new Zone(dbm));
+            }
+        }
+        return Collections.unmodifiableList(zones);
     }
 
-    public List<Zone> getZones() {
-        return zones;
+    // true if every clock valuation of this federation is also in the other one
+    public boolean isSubset(Federation other) {
+        if (isEmpty()) return true;
+        if (other.isEmpty()) return false;
+
+        int dim = getDimension();
+        return toBackend(dim).isSubsetEq(other.toBackend(dim));
     }
 
     public static Federation fedMinusFed(Federation fed1, Federation fed2) {
-        int[][] zones1 = fed1.getZones().stream().map(Zone::getDbm).toArray(int[][]::new);
-        int[][] zones2 = fed2.getZones().stream().map(Zone::getDbm).toArray(int[][]::new);
+        if (fed1.isEmpty()) return new Federation(new ArrayList<>());
 
-        int dim = (int) Math.sqrt(zones1[0].length);
+        int dim = fed1.getDimension();
+        if (!fed2.isEmpty() && fed2.getDimension() != dim)
+            throw new IllegalArgumentException("Federations must be of the same dimension");
 
-        int[][] result = DBMLib.fed_minus_fed(zones1, zones2, dim);
+        DbmFederation result = fed1.toBackend(dim).copy();
+        result.subtract(fed2.toBackend(dim));
         return new Federation(result);
     }
 
     public static Federation dbmMinusDbm(Zone z1, Zone z2){
         if(z1.getSize() != z2.getSize()) throw new IllegalArgumentException("Zones must be of the same size");
 
-        return new Federation(DBMLib.dbm_minus_dbm(z1.getDbm(), z2.getDbm(), z1.getSize()));
+        return new Federation(DBM.dbm_minus_dbm(z1.getDbm(), z2.getDbm(), z1.getSize()));
+    }
+
+    // only valid for a non-empty federation
+    private int getDimension() {
+        return fed != null ? fed.getDimension() : zones.get(0).getSize();
+    }
+
+    private DbmFederation toBackend(int dim) {
+        if (fed == null) {
+            int[][] dbms = zones.stream().map(Zone::getDbm).toArray(int[][]::new);
+            fed = DBM.fed_create(dbms, dim);
+        }
+        return fed;
     }
 }
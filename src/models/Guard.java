@@ -1,25 +1,22 @@
 package models;
 
+import lib.DbmBackend;
+
 import java.util.List;
 import java.util.Objects;
 
 public class Guard {
 
     private final Clock clock;
-    private int upperBound, lowerBound;
-    private boolean isStrict;
+    private final int upperBound, lowerBound;
+    private final boolean isStrict;
+    // the guard compiled to (i, j, raw bound) triples for x_i - x_j, where index 1 stands for the clock of the guard
+    // and 0 for the reference clock, so the same constraints can be placed in any dbm
+    private final int[] constraints;
+    private Guard negation;
 
     public Guard(Clock clock, int value, boolean greater, boolean isStrict) {
-        this.clock = clock;
-        this.isStrict = isStrict;
-
-        if (greater) {
-            upperBound = Integer.MAX_VALUE;
-            lowerBound = value;
-        } else {
-            upperBound = value;
-            lowerBound = 0;
-        }
+        this(clock, greater ? Integer.MAX_VALUE : value, greater ? value : 0, isStrict);
     }
 
     public Guard(Clock clock, int upper, int lower, boolean isStrict) {
@@ -27,21 +24,58 @@ public class Guard {
         this.isStrict = isStrict;
         this.upperBound = upper;
         this.lowerBound = lower;
+        this.constraints = compile();
     }
 
     public Guard(Clock clock, int value) {
-        this.clock = clock;
-        this.isStrict = false;
-        this.upperBound = value;
-        this.lowerBound = value;
+        this(clock, value, value, false);
     }
 
     // Copy constructor
     public Guard(Guard copy, List<Clock> clocks){
-        this.clock = clocks.get(clocks.indexOf(copy.clock));
-        this.isStrict = copy.isStrict;
-        this.upperBound = copy.upperBound;
-        this.lowerBound = copy.lowerBound;
+        this(clocks.get(clocks.indexOf(copy.clock)), copy.upperBound, copy.lowerBound, copy.isStrict);
+    }
+
+    private int[] compile() {
+        boolean hasLower = lowerBound != 0 || upperBound == lowerBound || upperBound == Integer.MAX_VALUE;
+        boolean hasUpper = upperBound != Integer.MAX_VALUE;
+
+        int[] result = new int[3 * ((hasLower ? 1 : 0) + (hasUpper ? 1 : 0))];
+        int n = 0;
+
+        if (hasLower) {
+            // 0 - x < -lower or 0 - x <= -lower
+            result[n++] = 0;
+            result[n++] = 1;
+            result[n++] = DbmBackend.rawBound(-lowerBound, isStrict);
+        }
+
+        if (hasUpper) {
+            result[n++] = 1;
+            result[n++] = 0;
+            result[n] = DbmBackend.rawBound(upperBound, isStrict);
+        }
+
+        return result;
+    }
+
+    // Writes the constraints of this guard for the clock at the given index of a dbm to target, starting at offset.
+    // Returns the offset after the last written constraint.
+    int placeConstraints(int[] target, int offset, int clockIndex) {
+        // the clock is not part of the dbm, like the reference clock it cannot be constrained
+        if (clockIndex == 0) return offset;
+
+        for (int k = 0; k < constraints.length; k += 3) {
+            target[offset++] = constraints[k] * clockIndex;
+            target[offset++] = constraints[k + 1] * clockIndex;
+            target[offset++] = constraints[k + 2];
+        }
+        return offset;
+    }
+
+    // the number of ints placeConstraints writes at most
+    int getConstraintsLength() {
+        return constraints.length;
     }
 
     public Clock getClock() {
@@ -66,12 +100,17 @@ public class Guard {
         return isStrict;
     }
 
+    // The negation is computed once and shared, the guard itself is not changed
     public Guard negate() {
-        isStrict = !isStrict;
-        int newLower = (lowerBound == 0) ? upperBound : 0;
-        int newUpper = (upperBound == Integer.MAX_VALUE) ? lowerBound : Integer.MAX_VALUE;
+        if (negation == null) {
+            int newLower = (lowerBound == 0) ? upperBound : 0;
+            int newUpper = (upperBound == Integer.MAX_VALUE) ? lowerBound : Integer.MAX_VALUE;
 
-        return new Guard(clock, newUpper, newLower, isStrict);
+            Guard result = new Guard(clock, newUpper, newLower, !isStrict);
+            result.negation = this;
+            negation = result;
+        }
+        return negation;
     }
 
     @Override
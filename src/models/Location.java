@@ -3,12 +3,15 @@ package models;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 
 public class Location {
 
     private final String name;
     private final List<Guard> invariant;
     private final boolean isInitial, isUrgent, isUniversal, isInconsistent;
+    // computed on first use, locations are hashed on every lookup of a state
+    private int hash;
 
     public Location(String name, List<Guard> invariant, boolean isInitial, boolean isUrgent, boolean isUniversal, boolean isInconsistent) {
         this.name = name;
@@ -45,6 +48,14 @@ public class Location {
         return isInitial;
     }
 
+    public boolean isUrgent() {
+        return isUrgent;
+    }
+
+    public boolean isInconsistent() {
+        return isInconsistent;
+    }
+
     public boolean isUniversal() {
         return isUniversal;
     }
@@ -74,6 +85,16 @@ public class Location {
                 Arrays.equals(invariant.toArray(), location.invariant.toArray());
     }
 
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            h = Objects.hash(name, invariant, isInitial, isUrgent, isUniversal, isInconsistent);
+            hash = h;
+        }
+        return h;
+    }
+
     @Override
     public String toString() {
         return name;
@@ -3,11 +3,13 @@ package models;
 import java.util.Objects;
 
 public class LocationPair {
-    private SymbolicLocation leftLocation, rightLocation;
+    private final SymbolicLocation leftLocation, rightLocation;
+    private final int hash;
 
     public LocationPair(SymbolicLocation leftLocation, SymbolicLocation rightLocation) {
         this.leftLocation = leftLocation;
         this.rightLocation = rightLocation;
+        this.hash = Objects.hash(leftLocation, rightLocation);
     }
 
     @Override
@@ -15,12 +17,13 @@ public class LocationPair {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         LocationPair that = (LocationPair) o;
-        return leftLocation.equals(that.leftLocation) &&
+        return hash == that.hash &&
+                leftLocation.equals(that.leftLocation) &&
                 rightLocation.equals(that.rightLocation);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(leftLocation, rightLocation);
+        return hash;
     }
 }
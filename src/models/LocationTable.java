@@ -0,0 +1,27 @@
+package models;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Interns the composite locations of a transition system, so every distinct tuple of locations exists once.
+// Interned locations get consecutive ids starting at 0 and two locations of the same table are equal only if they are
+// the same object.
+public class LocationTable {
+    private final Map<List<SymbolicLocation>, ComplexLocation> locations = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    public ComplexLocation intern(List<SymbolicLocation> tuple) {
+        ComplexLocation location = locations.get(tuple);
+        if (location != null) return location;
+
+        return locations.computeIfAbsent(new ArrayList<>(tuple), key -> new ComplexLocation(key, this, nextId.getAndIncrement()));
+    }
+
+    // number of interned locations, which is also the next id
+    public int size() {
+        return nextId.get();
+    }
+}
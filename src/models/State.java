@@ -11,6 +11,12 @@ public class State {
         this.invZone = new Zone(zone);
     }
 
+    // a state on the given zone itself, for states that are only read
+    State(SymbolicLocation location, Zone zone, boolean shared) {
+        this.location = location;
+        this.invZone = shared ? zone : new Zone(zone);
+    }
+
     public State(State oldState) {
         this.location = oldState.getLocation();
         this.invZone = new Zone(oldState.getInvZone());
@@ -24,35 +30,25 @@ public class State {
         return invZone;
     }
 
-    private int getIndexOfClock(Clock clock, List<Clock> clocks) {
-        for (int i = 0; i < clocks.size(); i++){
-            if(clock.hashCode() == clocks.get(i).hashCode()) return i+1;
-        }
-        return 0;
-    }
-
     public List<Guard> getInvariants() {
         return location.getInvariants();
     }
 
-    public void applyGuards(List<Guard> guards, List<Clock> clocks) {
-        for (Guard guard : guards)
-            invZone.buildConstraintsForGuard(guard, getIndexOfClock(guard.getClock(), clocks));
+    public void applyGuards(List<Guard> guards, ClockIndex clocks) {
+        invZone.buildConstraintsForGuards(guards, clocks);
     }
 
-    public void applyInvariants(List<Guard> invariants, List<Clock> clocks) {
-        for (Guard invariant : invariants)
-            invZone.buildConstraintsForGuard(invariant, getIndexOfClock(invariant.getClock(), clocks));
+    public void applyInvariants(List<Guard> invariants, ClockIndex clocks) {
+        invZone.buildConstraintsForGuards(invariants, clocks);
     }
 
-    public void applyInvariants(List<Clock> clocks) {
-        for (Guard invariant : getInvariants())
-            invZone.buildConstraintsForGuard(invariant, getIndexOfClock(invariant.getClock(), clocks));
+    public void applyInvariants(ClockIndex clocks) {
+        invZone.buildConstraintsForGuards(getInvariants(), clocks);
     }
 
-    public void applyResets(List<Update> resets, List<Clock> clocks) {
+    public void applyResets(List<Update> resets, ClockIndex clocks) {
         for (Update reset : resets)
-            invZone.updateValue(getIndexOfClock(reset.getClock(), clocks), reset.getValue());
+            invZone.updateValue(clocks.indexOf(reset.getClock()), reset.getValue());
     }
 
     public void extrapolateMaxBounds(int[] maxBounds){
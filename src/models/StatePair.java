@@ -2,29 +2,40 @@ package models;
 
 import logic.GraphNode;
 
+// A state of the refinement check: a location on each side and the single zone both sides are in.
+// The pair owns its zone, which is not changed once the pair is built.
 public class StatePair {
-    private final State left, right;
+    private final SymbolicLocation left, right;
+    private final Zone zone;
     private GraphNode node;
 
-    public StatePair(State state1, State state2) {
-        this.left = state1;
-        this.right = state2;
-    }
-
-    public StatePair(State left, State right, GraphNode node) {
+    public StatePair(SymbolicLocation left, SymbolicLocation right, Zone zone) {
         this.left = left;
         this.right = right;
-        this.node = node;
+        this.zone = zone;
     }
 
-    public State getLeft() {
+    public SymbolicLocation getLeftLocation() {
         return left;
     }
 
-    public State getRight() {
+    public SymbolicLocation getRightLocation() {
         return right;
     }
 
+    public Zone getZone() {
+        return zone;
+    }
+
+    // The states of both sides, they share the zone of the pair and must not be changed
+    public State getLeft() {
+        return new State(left, zone, true);
+    }
+
+    public State getRight() {
+        return new State(right, zone, true);
+    }
+
     public GraphNode getNode() {
         return node;
     }
@@ -34,12 +45,11 @@ public class StatePair {
     }
 
     public String prettyPrint() {
-        return "L=(" + left.getLocation() + ", " + right.getLocation() + ")  Z=" + left.getInvZone();
+        return "L=(" + left + ", " + right + ")  Z=" + zone;
     }
 
     @Override
     public String toString() {
-        //return "L=" + left + ", R=" + right;
-        return "L=(" + left.getLocation() + ", " + right.getLocation() + ")  Z=" + left.getInvZone() + "  " + right.getInvZone();
+        return "L=(" + left + ", " + right + ")  Z=" + zone;
     }
 }
@@ -1,7 +1,7 @@
 package models;
 
-import global.LibLoader;
-import lib.DBMLib;
+import lib.DbmBackend;
+import lib.DbmBackends;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -10,21 +10,28 @@ import java.util.Objects;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+// Copies of a zone share the dbm until one of them changes it. A zone that shares its dbm copies it on the first
+// operation that changes it, so copies that are only read never copy the dbm at all.
 public class Zone {
     private int[] dbm;
+    // whether the dbm may be used by another zone. Set on both zones when copying and never cleared on the original,
+    // which then copies once more than needed when it changes. Zones are handed over between threads as before, a zone
+    // must not be copied while another thread changes it.
+    private boolean shared;
     private int size;
     private int actualSize;
     private static final int DBM_INF = Integer.MAX_VALUE - 1;
+    private static final DbmBackend DBM = DbmBackends.get();
+    // scratch space for the constraints of the guards applied at once, grown when needed
+    private static final ThreadLocal<int[]> CONSTRAINTS = ThreadLocal.withInitial(() -> new int[48]);
 
     public Zone(int size, boolean delay) {
         this.size = size;
         this.actualSize = size * size;
-
-        LibLoader.load();
-        int[] temp = new int[actualSize];
+        this.dbm = new int[actualSize];
 
         // zone for initial state is dbm_zero with delay
-        this.dbm = DBMLib.dbm_zero(temp, size);
+        DBM.dbm_zero(dbm, size);
         if(delay) delay();
     }
 
@@ -32,17 +39,24 @@ public class Zone {
         this.dbm = dbm.clone();
         this.size = (int) Math.sqrt(dbm.length);
         this.actualSize = dbm.length;
-
-        LibLoader.load();
     }
 
-    // copy constructor
+    // copy constructor, the dbm is only copied when one of the zones changes
     public Zone(Zone oldZone) {
         this.size = oldZone.size;
         this.actualSize = oldZone.actualSize;
-        this.dbm = oldZone.dbm.clone();
+        this.dbm = oldZone.dbm;
+        this.shared = true;
+        oldZone.shared = true;
+    }
 
-        LibLoader.load();
+    // the dbm to change, copied first if another zone may use it
+    private int[] writableDbm() {
+        if (shared) {
+            dbm = dbm.clone();
+            shared = false;
+        }
+        return dbm;
     }
 
     public int getSize() {
@@ -54,48 +68,77 @@ public class Zone {
     }
 
     public void buildConstraintsForGuard(Guard g, int index) {
-        boolean isStrict = g.isStrict();
+        int[] constraints = CONSTRAINTS.get();
+        int n = g.placeConstraints(constraints, 0, index);
 
-        int lowerBoundI = g.getLowerBound();
-        int upperBoundI = g.getUpperBound();
+        DBM.dbm_constrainN(writableDbm(), size, constraints, n);
+    }
 
-        // if guard is of type "clock == value"
-        if (lowerBoundI == upperBoundI) {
-            constrain1(0, index, (-1) * lowerBoundI, isStrict);
-            constrain1(index, 0, upperBoundI, isStrict);
-        }
+    // Applies all guards at once, so the dbm is only closed once
+    public void buildConstraintsForGuards(List<Guard> guards, ClockIndex clocks) {
+        if (guards.isEmpty()) return;
 
-        if (upperBoundI == Integer.MAX_VALUE)
-            constrain1(0, index, (-1) * lowerBoundI, isStrict);
+        int[] constraints = CONSTRAINTS.get();
+        int n = 0;
 
-        if (lowerBoundI == 0)
-            constrain1(index, 0, upperBoundI, isStrict);
+        for (Guard guard : guards) {
+            if (n + guard.getConstraintsLength() > constraints.length) {
+                constraints = Arrays.copyOf(constraints, 2 * (n + guard.getConstraintsLength()));
+                CONSTRAINTS.set(constraints);
+            }
+            n = guard.placeConstraints(constraints, n, clocks.indexOf(guard.getClock()));
+        }
+
+        DBM.dbm_constrainN(writableDbm(), size, constraints, n);
     }
 
     public void updateValue(int index, int value) {
-        dbm = DBMLib.dbm_updateValue(dbm, size, index, value);
+        DBM.dbm_updateValue(writableDbm(), size, index, value);
     }
 
     public void delay() {
-        dbm = DBMLib.dbm_up(dbm, size);
+        DBM.dbm_up(writableDbm(), size);
     }
 
     public void extrapolateMaxBounds(int[] maxBounds){
-        dbm = DBMLib.dbm_extrapolateMaxBounds(dbm, size, maxBounds);
+        DBM.dbm_extrapolateMaxBounds(writableDbm(), size, maxBounds);
     }
 
     public boolean isSubset(Zone zone2) {
-        return DBMLib.dbm_isSubsetEq(this.dbm, zone2.dbm, size);
+        return DBM.dbm_isSubsetEq(this.dbm, zone2.dbm, size);
     }
 
     public boolean isValid() {
-        return DBMLib.dbm_isValid(dbm, size);
+        return DBM.dbm_isValid(dbm, size);
     }
 
     // This zone and received zone MUST BE OF THE SAME SIZE!!!
     public boolean intersects(Zone zone){
         if(this.size != zone.size) throw new IllegalArgumentException("Zones must be of the same size");
-        return DBMLib.dbm_intersection(dbm, zone.dbm, size);
+        // the library intersects in place, so work on a copy to leave this zone untouched
+        return DBM.dbm_intersection(dbm.clone(), zone.dbm, size);
+    }
+
+    // Compares the bounding intervals of the clocks, which are read from the closed dbms. If the intervals of some clock
+    // are disjoint the zones do not intersect, otherwise they may.
+    public boolean intervalsOverlap(Zone zone) {
+        if(this.size != zone.size) throw new IllegalArgumentException("Zones must be of the same size");
+
+        for (int i = 1; i < size; i++) {
+            if (isEmptyInterval(dbm[i], zone.dbm[size * i]) || isEmptyInterval(zone.dbm[i], dbm[size * i]))
+                return false;
+        }
+        return true;
+    }
+
+    // true if no value satisfies both the raw lower bound (0 - x) and the raw upper bound (x - 0)
+    private static boolean isEmptyInterval(int lower, int upper) {
+        if (lower >= DBM_INF || upper >= DBM_INF) return false;
+
+        // the sum of two raw bounds is non-strict only if both are
+        int bound = (lower >> 1) + (upper >> 1);
+        boolean isWeak = (lower & upper & 1) == 1;
+        return bound < 0 || (bound == 0 && !isWeak);
     }
 
     public boolean canDelayIndefinitely(){
@@ -110,7 +153,7 @@ public class Zone {
         for (int i = 1; i < size; i++) {
             int currLower = dbm[i];
             int currUpper = dbm[size * i];
-            if (DBMLib.dbm_addRawRaw(currLower, currUpper) != 1)
+            if (DBM.dbm_addRawRaw(currLower, currUpper) != 1)
                 return false;
         }
         return true;
@@ -126,14 +169,14 @@ public class Zone {
             int lb = dbm[i];
             // lower bound must be different from 1 (==0)
             if (lb != 1) {
-                Guard g1 = new Guard(clock, (-1) * DBMLib.raw2bound(lb), true, DBMLib.dbm_rawIsStrict(lb));
+                Guard g1 = new Guard(clock, (-1) * DBM.raw2bound(lb), true, DBM.dbm_rawIsStrict(lb));
                 guards.add(g1);
             }
             // values from first column, upper bounds
             int ub = dbm[size*i];
             // upper bound must be different from infinity
             if (ub != DBM_INF) {
-                Guard g2 = new Guard(clock, DBMLib.raw2bound(ub), false, DBMLib.dbm_rawIsStrict(ub));
+                Guard g2 = new Guard(clock, DBM.raw2bound(ub), false, DBM.dbm_rawIsStrict(ub));
                 guards.add(g2);
             }
         }
@@ -143,13 +186,14 @@ public class Zone {
 
     // FURTHER METHODS ARE ONLY MEANT TO BE USED FOR TESTING. NEVER USE THEM DIRECTLY IN YOUR CODE
     public void constrain1(int i, int j, int constraint, boolean isStrict) {
-        dbm = DBMLib.dbm_constrainBound(dbm, size, i, j, constraint, isStrict);
+        DBM.dbm_constrainBound(writableDbm(), size, i, j, constraint, isStrict);
     }
 
     public void init() {
-        dbm = DBMLib.dbm_init(dbm, size);
+        DBM.dbm_init(writableDbm(), size);
     }
 
+    // the dbm must not be changed, it may be shared with copies of this zone
     public int[] getDbm() {
         return dbm;
     }
@@ -173,12 +217,12 @@ public class Zone {
         System.out.println("---------------------------------------");
         for (int i = 0, j = 1; i < actualSize; i++, j++) {
 
-            toPrint = toConvert ? DBMLib.raw2bound(dbm[i]) : dbm[i];
+            toPrint = toConvert ? DBM.raw2bound(dbm[i]) : dbm[i];
 
             System.out.print(toPrint);
 
             if (showStrictness) {
-                String strictness = DBMLib.dbm_rawIsStrict(dbm[i]) ? " < " : " <=";
+                String strictness = DBM.dbm_rawIsStrict(dbm[i]) ? " < " : " <=";
                 System.out.print(strictness);
             }
             if (j == size) {
@@ -0,0 +1,161 @@
+package parser;
+
+import models.Clock;
+import models.Guard;
+import models.Update;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Parses the declarations, guards, invariants and updates of components, e.g. "clock x, y;", "x >= 2 && y < 5"
+// and "x = 0, y = 0", on a small tokenizer instead of regular expressions.
+class ExpressionParser {
+    private final String text;
+    private int pos = 0;
+
+    private ExpressionParser(String text) {
+        this.text = text;
+    }
+
+    // the clocks declared with "clock a, b;", other declarations are skipped
+    static List<Clock> parseClocks(String declarations) {
+        ExpressionParser p = new ExpressionParser(declarations);
+        List<Clock> clocks = new ArrayList<>();
+
+        while (p.hasNext()) {
+            String token = p.next();
+            if (token.equals("clock")) {
+                clocks.add(new Clock(p.expectIdentifier()));
+                while (p.accept(",")) {
+                    clocks.add(new Clock(p.expectIdentifier()));
+                }
+                p.expect(";");
+            } else {
+                while (p.hasNext() && !p.next().equals(";")) ;
+            }
+        }
+        return clocks;
+    }
+
+    // a conjunction of clock constraints
+    static List<Guard> parseGuards(String guards, Map<String, Clock> clocks) {
+        ExpressionParser p = new ExpressionParser(guards);
+        List<Guard> result = new ArrayList<>();
+
+        do {
+            Clock clock = p.expectClock(clocks);
+            String op = p.next();
+            int value = p.expectInt();
+
+            switch (op) {
+                case "==": result.add(new Guard(clock, value)); break;
+                case "<=": result.add(new Guard(clock, value, false, false)); break;
+                case "<": result.add(new Guard(clock, value, false, true)); break;
+                case ">=": result.add(new Guard(clock, value, true, false)); break;
+                case ">": result.add(new Guard(clock, value, true, true)); break;
+                default: throw p.error("comparison expected");
+            }
+        } while (p.accept("&&"));
+
+        p.expectEnd();
+        return result;
+    }
+
+    // a comma separated list of clock resets
+    static Update[] parseUpdates(String updates, Map<String, Clock> clocks) {
+        ExpressionParser p = new ExpressionParser(updates);
+        List<Update> result = new ArrayList<>();
+
+        do {
+            Clock clock = p.expectClock(clocks);
+            String op = p.next();
+            if (!op.equals("=") && !op.equals(":=")) throw p.error("assignment expected");
+            result.add(new Update(clock, p.expectInt()));
+        } while (p.accept(","));
+
+        p.expectEnd();
+        return result.toArray(new Update[0]);
+    }
+
+    // skips the next token if it is the given one
+    private boolean accept(String token) {
+        int start = pos;
+        if (token.equals(next())) return true;
+        pos = start;
+        return false;
+    }
+
+    private Clock expectClock(Map<String, Clock> clocks) {
+        String name = expectIdentifier();
+        Clock clock = clocks.get(name);
+        if (clock == null) throw error("unknown clock " + name);
+        return clock;
+    }
+
+    private String expectIdentifier() {
+        String token = next();
+        if (token == null || !Character.isJavaIdentifierStart(token.charAt(0))) throw error("identifier expected");
+        return token;
+    }
+
+    private int expectInt() {
+        String token = next();
+        try {
+            return Integer.parseInt(token);
+        } catch (NumberFormatException | NullPointerException e) {
+            throw error("number expected");
+        }
+    }
+
+    private void expect(String expected) {
+        if (!expected.equals(next())) throw error("\"" + expected + "\" expected");
+    }
+
+    private void expectEnd() {
+        if (hasNext()) throw error("unexpected " + next());
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Cannot parse \"" + text + "\": " + message);
+    }
+
+    private boolean hasNext() {
+        skipBlanks();
+        return pos < text.length();
+    }
+
+    // the next token, an identifier, a number or an operator, or null at the end of the text
+    private String next() {
+        if (!hasNext()) return null;
+
+        int start = pos;
+        char c = text.charAt(pos);
+
+        if (Character.isJavaIdentifierStart(c)) {
+            while (pos < text.length() && Character.isJavaIdentifierPart(text.charAt(pos))) pos++;
+        } else if (Character.isDigit(c) || (c == '-' && pos + 1 < text.length() && Character.isDigit(text.charAt(pos + 1)))) {
+            pos++;
+            while (pos < text.length() && Character.isDigit(text.charAt(pos))) pos++;
+        } else if (text.startsWith("<=", pos) || text.startsWith(">=", pos) || text.startsWith("==", pos)
+                || text.startsWith("&&", pos) || text.startsWith(":=", pos)) {
+            pos += 2;
+        } else {
+            pos++;
+        }
+        return text.substring(start, pos);
+    }
+
+    // skips white space and line comments
+    private void skipBlanks() {
+        while (pos < text.length()) {
+            if (Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            } else if (text.startsWith("//", pos)) {
+                while (pos < text.length() && text.charAt(pos) != '\n') pos++;
+            } else {
+                break;
+            }
+        }
+    }
+}
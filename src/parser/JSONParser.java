@@ -7,50 +7,78 @@ import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @SuppressWarnings("unchecked")
 public class JSONParser {
 
-    private static ArrayList<JSONObject> objectList = new ArrayList<>();
-    private static final ArrayList<Channel> globalChannels = new ArrayList<>();
-    private static final List<Clock> componentClocks = new ArrayList<>();
-
     public static Automaton[] parse(String folderPath, boolean makeInpEnabled) {
+        return parse(getComponentFiles(folderPath), new SymbolTable(), makeInpEnabled);
+    }
+
+    // the files of the components of a project, every component is in a file of its own
+    public static List<File> getComponentFiles(String folderPath) {
         File dir = new File(folderPath + "/Components");
         File[] files = dir.listFiles((dir1, name) -> name.endsWith(".json"));
 
-        ArrayList<String> locations = new ArrayList<>(Collections.singletonList(folderPath + "/GlobalDeclarations.json"));
-        locations.addAll(Arrays.stream(files).map(File::toString).collect(Collectors.toList()));
-
-        objectList = parseFiles(locations);
-        return distrubuteObjects(objectList, makeInpEnabled);
+        return Arrays.asList(files);
     }
 
     public static Automaton[] parse(String base, String[] components, boolean makeInpEnabled) {
-        ArrayList<String> locations = Arrays.stream(components).map(c -> base + c).collect(Collectors.toCollection(ArrayList::new));
+        List<File> files = Arrays.stream(components).map(c -> new File(base + c)).collect(Collectors.toList());
 
-        objectList = parseFiles(locations);
-        return distrubuteObjects(objectList, makeInpEnabled);
+        return parse(files, new SymbolTable(), makeInpEnabled);
+    }
+
+    // Parses the files in parallel, the automata are returned in the order of the files.
+    // The global declarations have no automaton. If files cannot be parsed, the failure of the first one is thrown.
+    public static Automaton[] parse(List<File> files, SymbolTable symbols, boolean makeInpEnabled) {
+        Automaton[] automata = new Automaton[files.size()];
+        IllegalArgumentException[] failures = new IllegalArgumentException[files.size()];
+
+        // failures are kept per file and thrown here, so the caller gets them unwrapped and in a fixed order
+        IntStream.range(0, files.size()).parallel().forEach(i -> {
+            try {
+                automata[i] = parseComponent(files.get(i), symbols, makeInpEnabled);
+            } catch (IllegalArgumentException e) {
+                failures[i] = e;
+            }
+        });
+
+        for (IllegalArgumentException failure : failures) {
+            if (failure != null) throw failure;
+        }
+        return Arrays.stream(automata).filter(Objects::nonNull).toArray(Automaton[]::new);
+    }
+
+    // the automaton of a component file, or null for the global declarations, which have none
+    public static Automaton parseComponent(File file, SymbolTable symbols, boolean makeInpEnabled) {
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            JSONObject obj = (JSONObject) new org.json.simple.parser.JSONParser().parse(reader);
+
+            if ("Global Declarations".equals(String.valueOf(obj.get("name")))) return null;
+            return buildAutomaton(obj, symbols, makeInpEnabled);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Could not parse " + file.getName() + ": "
+                    + (e.getMessage() != null ? e.getMessage() : e), e);
+        }
     }
 
     public static String writeRefinement(GraphNode refTree) {
         JSONObject obj = new JSONObject();
         List<GraphEdge> children = refTree.getSuccessors();
         obj.put("initial sp id", "" + refTree.getNodeId());
-        obj.put("left", "" + refTree.getStatePair().getLeft().getLocation());
-        obj.put("right", "" + refTree.getStatePair().getRight().getLocation());
-        obj.put("zone", "" + refTree.getStatePair().getLeft().getInvZone());
+        obj.put("left", "" + refTree.getStatePair().getLeftLocation());
+        obj.put("right", "" + refTree.getStatePair().getRightLocation());
+        obj.put("zone", "" + refTree.getStatePair().getZone());
         obj.put("transitions", helper(children));
 
-        System.out.println(obj.toJSONString());
+        System.err.println(obj.toJSONString());
         return obj.toJSONString();
     }
 
@@ -62,9 +90,9 @@ public class JSONParser {
             if (child.getSubsetZone() == null) {
                 JSONObject statePair = new JSONObject();
                 statePair.put("state pair id", "" + child.getTarget().getNodeId());
-                statePair.put("left", "" + child.getTarget().getStatePair().getLeft().getLocation());
-                statePair.put("right", "" + child.getTarget().getStatePair().getRight().getLocation());
-                statePair.put("zone", "" + child.getTarget().getStatePair().getLeft().getInvZone());
+                statePair.put("left", "" + child.getTarget().getStatePair().getLeftLocation());
+                statePair.put("right", "" + child.getTarget().getStatePair().getRightLocation());
+                statePair.put("zone", "" + child.getTarget().getStatePair().getZone());
                 transition.put("source sp id", "" + child.getSource().getNodeId());
                 transition.put("target sp id", "" + child.getTarget().getNodeId());
                 transition.put("target sp", statePair);
@@ -83,73 +111,19 @@ public class JSONParser {
     }
     //---------------------------Testing-----------------
 
-    private static ArrayList<JSONObject> parseFiles(ArrayList<String> locations) {
-        org.json.simple.parser.JSONParser parser = new org.json.simple.parser.JSONParser();
-        ArrayList<JSONObject> returnList = new ArrayList<>();
-
-        try {
-            for (String location : locations) {
-                Object obj = parser.parse(new FileReader(location));
-                returnList.add((JSONObject) obj);
-            }
-
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-
-        return returnList;
-    }
-
-    private static Automaton[] distrubuteObjects(ArrayList<JSONObject> objList, boolean makeInpEnabled) {
-        ArrayList<Automaton> automata = new ArrayList<>();
-
-        try {
-            for (JSONObject obj : objList) {
-                if (!obj.get("name").toString().equals("Global Declarations")) {
-                    addDeclarations((String) obj.get("declarations"));
-                    JSONArray locationList = (JSONArray) obj.get("locations");
-                    List<Location> locations = addLocations(locationList);
-                    JSONArray edgeList = (JSONArray) obj.get("edges");
-                    List<Edge> edges = addEdges(edgeList, locations);
-                    Automaton automaton = new Automaton((String) obj.get("name"), locations, edges, new ArrayList<>(componentClocks), makeInpEnabled);
-                    automata.add(automaton);
-                    componentClocks.clear();
-                }
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-
-        return automata.toArray(new Automaton[0]);
-    }
-
-    private static void addDeclarations(String declarations) {//add for typedefs
-        String[] firstList = declarations.split(";");
-
-        for (String value : firstList) {
-            boolean isClock = value.contains("clock");
-
-            if (isClock) {
-                String clocks = value;
+    private static Automaton buildAutomaton(JSONObject obj, SymbolTable symbols, boolean makeInpEnabled) {
+        // clocks are local to the component, the first declaration of a name wins
+        List<Clock> clockList = ExpressionParser.parseClocks((String) obj.get("declarations"));
+        Map<String, Clock> clocks = new HashMap<>();
+        for (Clock clock : clockList) clocks.putIfAbsent(clock.getName(), clock);
 
-                clocks = clocks.replaceAll("//.*\n", "")
-                        .replaceFirst("clock", "");
+        List<Location> locations = addLocations((JSONArray) obj.get("locations"), clocks);
+        List<Edge> edges = addEdges((JSONArray) obj.get("edges"), locations, clocks, symbols);
 
-                clocks = clocks.replaceAll("clock", ",")
-                        .replaceAll(";", "")
-                        .replaceAll(" ", "")
-                        .replaceAll("\n", "");
-
-                String[] clockArr = clocks.split(",");
-
-                for (String s : clockArr) {
-                    componentClocks.add(new Clock(s));
-                }
-            }
-        }
+        return new Automaton((String) obj.get("name"), locations, edges, clockList, makeInpEnabled);
     }
 
-    private static List<Location> addLocations(JSONArray locationList) {
+    private static List<Location> addLocations(JSONArray locationList, Map<String, Clock> clocks) {
         ArrayList<Location> returnLocList = new ArrayList<>();
 
         for (Object obj : locationList) {
@@ -173,7 +147,7 @@ public class JSONParser {
             boolean isNotUrgent = "NORMAL".equals(jsonObject.get("urgency").toString());
 
             List<Guard> invariant = ("".equals(jsonObject.get("invariant").toString()) ? new ArrayList<>() :
-                    addGuards(jsonObject.get("invariant").toString()));
+                    ExpressionParser.parseGuards(jsonObject.get("invariant").toString(), clocks));
             Location loc = new Location(jsonObject.get("id").toString(), invariant, isInitial, !isNotUrgent,
                     isUniversal, isInconsistent);
 
@@ -183,59 +157,13 @@ public class JSONParser {
         return returnLocList;
     }
 
-    private static List<Guard> addGuards(String invariant) {
-        ArrayList<Guard> guards = new ArrayList<>();
-        String[] listOfInv = invariant.split("&&");
-
-        for (String str : listOfInv) {
-            String symbol = "";
-            boolean strict, greater, isEq;
-            strict = false;
-            greater = false;
-            isEq = false;
-
-            if (str.contains("==")) {
-                symbol = "==";
-                greater = false;
-                isEq = true;
-            } else if (str.contains("<=")) {
-                symbol = "<=";
-            } else if (str.contains(">=")) {
-                symbol = ">=";
-                greater = true;
-            } else if (str.contains("<") && !str.contains("=")) {
-                symbol = "<";
-                strict = true;
-            } else if (str.contains(">") && !str.contains("=")) {
-                symbol = ">";
-                greater = true;
-                strict = true;
-            }
-
-            String[] s = str.split(symbol);
-            for (int x = 0; x < s.length; x++) {
-                s[x] = s[x].replaceAll(" ", "");
-            }
-
-            if (isEq)
-                guards.add(new Guard(findClock(s[0]), Integer.parseInt(s[1])));
-            else
-                guards.add(new Guard(findClock(s[0]), Integer.parseInt(s[1]), greater, strict));
-        }
-
-        return guards;
-    }
-
-    private static Clock findClock(String clockName) {
-        for (Clock clock : componentClocks)
-            if (clock.getName().equals(clockName)) return clock;
-
-        return null;
-    }
-
-    private static List<Edge> addEdges(JSONArray edgeList, List<Location> locations) {
+    private static List<Edge> addEdges(JSONArray edgeList, List<Location> locations, Map<String, Clock> clocks, SymbolTable symbols) {
         ArrayList<Edge> edges = new ArrayList<>();
 
+        // source and target of the edges by name, the first location of a name wins
+        Map<String, Location> locationsByName = new HashMap<>();
+        for (Location location : locations) locationsByName.putIfAbsent(location.getName(), location);
+
         for (Object obj : edgeList) {
             JSONObject jsonObject = (JSONObject) obj;
 
@@ -243,62 +171,26 @@ public class JSONParser {
             Update[] updates;
 
             if (!jsonObject.get("guard").toString().equals(""))
-                guards = addGuards((String) jsonObject.get("guard"));
+                guards = ExpressionParser.parseGuards((String) jsonObject.get("guard"), clocks);
             else
                 guards = new ArrayList<>();
 
             if (!jsonObject.get("update").toString().equals(""))
-                updates = addUpdates((String) jsonObject.get("update"));
+                updates = ExpressionParser.parseUpdates((String) jsonObject.get("update"), clocks);
             else
                 updates = new Update[]{};
 
-            Location sourceLocation = findLoc(locations, (String) jsonObject.get("sourceLocation"));
-            Location targetLocation = findLoc(locations, (String) jsonObject.get("targetLocation"));
+            Location sourceLocation = locationsByName.get((String) jsonObject.get("sourceLocation"));
+            Location targetLocation = locationsByName.get((String) jsonObject.get("targetLocation"));
 
             boolean isInput = "INPUT".equals(jsonObject.get("status").toString());
 
-            Channel c = addChannel(jsonObject.get("sync").toString());
-            if (c != null) {
-                Edge edge = new Edge(sourceLocation, targetLocation, c, isInput, guards, updates);
+            String sync = jsonObject.get("sync").toString();
+            if (!sync.equals("*")) {
+                Edge edge = new Edge(sourceLocation, targetLocation, symbols.getChannel(sync), isInput, guards, updates);
                 edges.add(edge);
             }
         }
         return edges;
     }
-
-    private static Channel addChannel(String name) {
-        if (name.equals("*")) return null;
-
-        for (Channel channel : globalChannels)
-            if (channel.getName().equals(name))
-                return channel;
-
-        Channel chan = new Channel(name);
-        globalChannels.add(chan);
-        return chan;
-    }
-
-    private static Update[] addUpdates(String update) {
-        ArrayList<Update> updates = new ArrayList<>();
-        String[] listOfInv = update.split(",");
-
-        for (String str : listOfInv) {
-            String[] s = str.split("=");
-            for (int i = 0; i < s.length; i++)
-                s[i] = s[i].replaceAll(" ", "");
-            Update upd = new Update(findClock(s[0]), Integer.parseInt(s[1]));
-            updates.add(upd);
-        }
-
-        return updates.toArray(new Update[0]);
-    }
-
-    //Helper method for addEdge in order to find which Location is source and which one is target
-    private static Location findLoc(List<Location> locations, String name) {
-        List<Location> locs = locations.stream().filter(location -> location.getName().equals(name)).collect(Collectors.toList());
-
-        if (locs.isEmpty()) return null;
-
-        return locs.get(0);
-    }
-}
\ No newline at end of file
+}
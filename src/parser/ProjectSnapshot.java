@@ -0,0 +1,251 @@
+package parser;
+
+import models.*;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+// Binary snapshot of the compiled components of a project, so a warm start does not parse the sources again and does
+// not make the components input enabled again. Every source file is stored with a hash of its content and the
+// automata compiled from it: locations, edges including the target invariants and the input enabling edges, with
+// clocks and channels stored as indices, and the max bounds of the clocks.
+// A snapshot with another magic number or version, or one that cannot be read, is treated as missing.
+public class ProjectSnapshot {
+    private static final int MAGIC = 0x45434453;
+    public static final int VERSION = 1;
+
+    // file name used next to a json project folder, xml projects use the name of the file followed by this extension
+    public static final String FILE_NAME = "project.snapshot";
+    public static final String EXTENSION = ".snapshot";
+
+    // the automata compiled from one source file
+    public static class Entry {
+        private final long hash;
+        private final Automaton[] automata;
+
+        public Entry(long hash, Automaton[] automata) {
+            this.hash = hash;
+            this.automata = automata;
+        }
+
+        public long getHash() {
+            return hash;
+        }
+
+        public Automaton[] getAutomata() {
+            return automata;
+        }
+    }
+
+    public static File getFile(String location, boolean isJson) {
+        return isJson ? new File(location, FILE_NAME) : new File(location + EXTENSION);
+    }
+
+    // Hash of the content of a source file, the first 8 bytes of its SHA-256
+    public static long hash(File file) throws IOException {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(file.toPath()));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Returns the entries of the snapshot by source file name, or an empty map if there is no usable snapshot.
+    // Channels are taken from the symbol table, so they are shared with components that are parsed later.
+    public static Map<String, Entry> read(File snapshot, SymbolTable symbols) {
+        if (!snapshot.isFile()) return new HashMap<>();
+
+        try (FileChannel channel = FileChannel.open(snapshot.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) return new HashMap<>();
+
+            Map<String, Entry> entries = new HashMap<>();
+            int entryCount = buffer.getInt();
+            for (int i = 0; i < entryCount; i++) {
+                String name = readString(buffer);
+                long hash = buffer.getLong();
+
+                Automaton[] automata = new Automaton[buffer.getInt()];
+                for (int j = 0; j < automata.length; j++) {
+                    automata[j] = readAutomaton(buffer, symbols);
+                }
+                entries.put(name, new Entry(hash, automata));
+            }
+            return entries;
+        } catch (IOException | RuntimeException e) {
+            return new HashMap<>();
+        }
+    }
+
+    // Writes the entries to a temporary file that then replaces the snapshot, so a reader never sees half a snapshot
+    public static void write(File snapshot, Map<String, Entry> entries) throws IOException {
+        File temp = new File(snapshot.getPath() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(entries.size());
+
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                writeString(out, entry.getKey());
+                out.writeLong(entry.getValue().hash);
+                out.writeInt(entry.getValue().automata.length);
+                for (Automaton automaton : entry.getValue().automata) {
+                    writeAutomaton(out, automaton);
+                }
+            }
+        }
+
+        try {
+            Files.move(temp.toPath(), snapshot.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), snapshot.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void writeAutomaton(DataOutputStream out, Automaton automaton) throws IOException {
+        writeString(out, automaton.getName());
+
+        List<Clock> clocks = automaton.getClocks();
+        out.writeInt(clocks.size());
+        for (Clock clock : clocks) {
+            writeString(out, clock.getName());
+        }
+
+        List<Location> locations = automaton.getLocations();
+        Map<Location, Integer> locationIndex = new IdentityHashMap<>();
+        out.writeInt(locations.size());
+        for (Location location : locations) {
+            locationIndex.put(location, locationIndex.size());
+            writeString(out, location.getName());
+            out.writeBoolean(location.isInitial());
+            out.writeBoolean(location.isUrgent());
+            out.writeBoolean(location.isUniversal());
+            out.writeBoolean(location.isInconsistent());
+            writeGuards(out, location.getInvariant(), clocks);
+        }
+
+        List<Edge> edges = automaton.getEdges();
+        Map<String, Integer> channelIndex = new LinkedHashMap<>();
+        for (Edge edge : edges) {
+            channelIndex.putIfAbsent(edge.getChannel().getName(), channelIndex.size());
+        }
+        out.writeInt(channelIndex.size());
+        for (String channel : channelIndex.keySet()) {
+            writeString(out, channel);
+        }
+
+        out.writeInt(edges.size());
+        for (Edge edge : edges) {
+            out.writeInt(locationIndex.get(edge.getSource()));
+            out.writeInt(locationIndex.get(edge.getTarget()));
+            out.writeInt(channelIndex.get(edge.getChannel().getName()));
+            out.writeBoolean(edge.isInput());
+            writeGuards(out, edge.getGuards(), clocks);
+
+            Update[] updates = edge.getUpdates();
+            out.writeInt(updates.length);
+            for (Update update : updates) {
+                out.writeInt(clocks.indexOf(update.getClock()));
+                out.writeInt(update.getValue());
+            }
+        }
+
+        List<Integer> maxBounds = automaton.getMaxBoundsForAllClocks();
+        for (int bound : maxBounds) {
+            out.writeInt(bound);
+        }
+    }
+
+    private static Automaton readAutomaton(ByteBuffer in, SymbolTable symbols) {
+        String name = readString(in);
+
+        List<Clock> clocks = new ArrayList<>();
+        int clockCount = in.getInt();
+        for (int i = 0; i < clockCount; i++) {
+            clocks.add(new Clock(readString(in)));
+        }
+
+        List<Location> locations = new ArrayList<>();
+        int locationCount = in.getInt();
+        for (int i = 0; i < locationCount; i++) {
+            String locationName = readString(in);
+            boolean isInitial = readBoolean(in), isUrgent = readBoolean(in);
+            boolean isUniversal = readBoolean(in), isInconsistent = readBoolean(in);
+            locations.add(new Location(locationName, readGuards(in, clocks), isInitial, isUrgent, isUniversal, isInconsistent));
+        }
+
+        Channel[] channels = new Channel[in.getInt()];
+        for (int i = 0; i < channels.length; i++) {
+            channels[i] = symbols.getChannel(readString(in));
+        }
+
+        List<Edge> edges = new ArrayList<>();
+        int edgeCount = in.getInt();
+        for (int i = 0; i < edgeCount; i++) {
+            Location source = locations.get(in.getInt());
+            Location target = locations.get(in.getInt());
+            Channel channel = channels[in.getInt()];
+            boolean isInput = readBoolean(in);
+            List<Guard> guards = readGuards(in, clocks);
+
+            Update[] updates = new Update[in.getInt()];
+            for (int j = 0; j < updates.length; j++) {
+                updates[j] = new Update(clocks.get(in.getInt()), in.getInt());
+            }
+            edges.add(new Edge(source, target, channel, isInput, guards, updates));
+        }
+
+        List<Integer> maxBounds = new ArrayList<>();
+        for (int i = 0; i < clockCount; i++) {
+            maxBounds.add(in.getInt());
+        }
+
+        return new Automaton(name, locations, edges, clocks, maxBounds);
+    }
+
+    private static void writeGuards(DataOutputStream out, List<Guard> guards, List<Clock> clocks) throws IOException {
+        out.writeInt(guards.size());
+        for (Guard guard : guards) {
+            out.writeInt(clocks.indexOf(guard.getClock()));
+            out.writeInt(guard.getUpperBound());
+            out.writeInt(guard.getLowerBound());
+            out.writeBoolean(guard.isStrict());
+        }
+    }
+
+    private static List<Guard> readGuards(ByteBuffer in, List<Clock> clocks) {
+        List<Guard> guards = new ArrayList<>();
+        int count = in.getInt();
+        for (int i = 0; i < count; i++) {
+            Clock clock = clocks.get(in.getInt());
+            int upper = in.getInt(), lower = in.getInt();
+            guards.add(new Guard(clock, upper, lower, readBoolean(in)));
+        }
+        return guards;
+    }
+
+    private static boolean readBoolean(ByteBuffer in) {
+        return in.get() != 0;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,20 @@
+package parser;
+
+import models.Channel;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Channels of one project, shared by all of its components so every channel name maps to a single object.
+// The components of a project are parsed at the same time, so lookups are thread safe.
+public class SymbolTable {
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+
+    public Channel getChannel(String name) {
+        return channels.computeIfAbsent(name, Channel::new);
+    }
+
+    public int getChannelCount() {
+        return channels.size();
+    }
+}
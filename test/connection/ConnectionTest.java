@@ -2,6 +2,9 @@ package connection;
 
 import org.junit.Test;
 
+import java.io.StringReader;
+import java.io.StringWriter;
+
 import static org.junit.Assert.assertEquals;
 
 public class ConnectionTest {
@@ -88,4 +91,28 @@ public class ConnectionTest {
     public void testValidateInvalidQuery2() {
         assertEquals("Error: Incorrect syntax, does not contain any feature", (Main.chooseCommand("-vq sdf")));
     }
+
+    @Test
+    public void testServerAnswersWithRequestId() {
+        assertEquals("{\"result\":\"true\",\"id\":7}",
+                Server.handle("{\"id\": 7, \"command\": \"-vq refinement:Spec<=Spec\"}"));
+    }
+
+    @Test
+    public void testServerServesRequestsInOrder() throws Exception {
+        StringWriter out = new StringWriter();
+        Server.serve(new StringReader(
+                "{\"id\": \"a\", \"command\": \"-rq -json ./samples/json/EcdarUniversity refinement:(HalfAdm1&&HalfAdm2)<=Adm2\"}\n" +
+                "{\"id\": \"b\", \"command\": \"-rq -json ./samples/json/EcdarUniversity refinement:Spec<=Spec\"}\n"), out);
+
+        String[] lines = out.toString().split(System.lineSeparator());
+        assertEquals(2, lines.length);
+        assertEquals("{\"result\":\"true\",\"id\":\"a\"}", lines[0]);
+        assertEquals("{\"result\":\"false\\nDuplicate process instance: Spec.\\n\",\"id\":\"b\"}", lines[1]);
+    }
+
+    @Test
+    public void testServerRejectsInvalidRequest() {
+        assertEquals("{\"error\":\"Invalid request: Request must be an object with a command\"}", Server.handle("{\"id\": 1}"));
+    }
 }
@@ -1,29 +1,43 @@
 package dbm;
 
-import global.LibLoader;
-import lib.DBMLib;
+import lib.DbmBackend;
+import lib.DbmBackends;
+import lib.DbmFederation;
 import models.*;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
 import static features.Helpers.printDBM;
 import static org.junit.Assert.*;
 
+// Every case runs against both the native library and the pure Java backend
+@RunWith(Parameterized.class)
 public class DBMTest {
     private static final int DBM_INF = 2147483646;
     private static State state1, state2, state3, state4, state5;
     private static Guard g1, g2, g3, g4, g5, g6, g7, g8;
     private static List<Clock> clockList = new ArrayList<>();
+    private final DbmBackend backend;
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> backends() {
+        return Arrays.asList(new Object[][]{{"native"}, {"java"}});
+    }
+
+    public DBMTest(String backendName) {
+        this.backend = DbmBackends.create(backendName);
+    }
 
     @BeforeClass
     public static void setUpBeforeClass() {
-        LibLoader.load();
-
         Location l1 = new Location("L0", new ArrayList<>(), false, false, false, false);
         SymbolicLocation sl1 = new SimpleLocation(l1);
 
@@ -64,107 +78,121 @@ public class DBMTest {
 
     @Test
     public void testDbmValid1() {
-        assertTrue(DBMLib.dbm_isValid(new int[]{1, 1, DBM_INF, 1}, 2));
+        assertTrue(backend.dbm_isValid(new int[]{1, 1, DBM_INF, 1}, 2));
     }
 
     @Test
     public void testDbmValid2() {
-        assertTrue(DBMLib.dbm_isValid(new int[]{1, 1, 1, 1}, 2));
+        assertTrue(backend.dbm_isValid(new int[]{1, 1, 1, 1}, 2));
     }
 
     @Test
     public void testDbmValid3() {
-        assertTrue(DBMLib.dbm_isValid(new int[]{1, -3, 11, 1}, 2));
+        assertTrue(backend.dbm_isValid(new int[]{1, -3, 11, 1}, 2));
     }
 
     @Test
     public void testDbmNotValid1() {
-        assertFalse(DBMLib.dbm_isValid(new int[]{0, 0, 0, 0}, 2));
+        assertFalse(backend.dbm_isValid(new int[]{0, 0, 0, 0}, 2));
     }
 
     @Test
     public void testDbmNotValid2() {
-        assertFalse(DBMLib.dbm_isValid(new int[]{-1, 0, 0, 0}, 2));
+        assertFalse(backend.dbm_isValid(new int[]{-1, 0, 0, 0}, 2));
     }
 
     @Test
     public void testRaw2Bound1() {
-        assertEquals(0, DBMLib.raw2bound(1));
+        assertEquals(0, backend.raw2bound(1));
     }
 
     @Test
     public void testRaw2Bound2() {
-        assertEquals(1073741823, DBMLib.raw2bound(DBM_INF));
+        assertEquals(1073741823, backend.raw2bound(DBM_INF));
     }
 
     @Test
     public void testBound2Raw1() {
-        assertEquals(1, DBMLib.boundbool2raw(0, false));
+        assertEquals(1, backend.boundbool2raw(0, false));
     }
 
     @Test
     public void testBound2Raw2() {
-        assertEquals(2147483647, DBMLib.boundbool2raw(1073741823, false));
+        assertEquals(2147483647, backend.boundbool2raw(1073741823, false));
     }
 
     @Test
     public void testDbmInit1() {
-        assertArrayEquals(new int[]{1, 1, DBM_INF, 1}, DBMLib.dbm_init(new int[]{0, 0, 0, 0}, 2));
+        int[] dbm = new int[]{0, 0, 0, 0};
+        backend.dbm_init(dbm, 2);
+
+        assertArrayEquals(new int[]{1, 1, DBM_INF, 1}, dbm);
     }
 
     @Test
     public void testDbmInit2() {
-        assertArrayEquals(new int[]{1, 1, 1, DBM_INF, 1, DBM_INF, DBM_INF, DBM_INF, 1},
-                DBMLib.dbm_init(new int[]{0, 0, 0, 0, 0, 0, 0, 0, 0}, 3)
-        );
+        int[] dbm = new int[]{0, 0, 0, 0, 0, 0, 0, 0, 0};
+        backend.dbm_init(dbm, 3);
+
+        assertArrayEquals(new int[]{1, 1, 1, DBM_INF, 1, DBM_INF, DBM_INF, DBM_INF, 1}, dbm);
     }
 
     @Test
     public void testDbmConstrain1() {
-        assertArrayEquals(new int[]{1, 1, 11, 1},
-                DBMLib.dbm_constrainBound(new int[]{1, 1, DBM_INF, 1}, 2, 1, 0, 5, false)
-        );
+        int[] dbm = new int[]{1, 1, DBM_INF, 1};
+        backend.dbm_constrainBound(dbm, 2, 1, 0, 5, false);
+
+        assertArrayEquals(new int[]{1, 1, 11, 1}, dbm);
     }
 
     @Test
     public void testDbmConstrain2() {
-        assertArrayEquals(new int[]{1, -3, 11, 1},
-                DBMLib.dbm_constrainBound(new int[]{1, 1, 11, 1}, 2, 0, 1, -2, false)
-        );
+        int[] dbm = new int[]{1, 1, 11, 1};
+        backend.dbm_constrainBound(dbm, 2, 0, 1, -2, false);
+
+        assertArrayEquals(new int[]{1, -3, 11, 1}, dbm);
     }
 
     @Test
     public void testDbmReset1() {
-        assertArrayEquals(new int[]{1, 1, 1, 1},
-                DBMLib.dbm_updateValue(new int[]{1, -3, 11, 1}, 2, 1, 0)
-        );
+        int[] dbm = new int[]{1, -3, 11, 1};
+        backend.dbm_updateValue(dbm, 2, 1, 0);
+
+        assertArrayEquals(new int[]{1, 1, 1, 1}, dbm);
     }
 
     @Test
     public void testDbmReset2() {
-        assertArrayEquals(new int[]{1, 1, 1, 1, 1, 1, 5, 5, 1},
-                DBMLib.dbm_updateValue(new int[]{1, 1, 1, 7, 1, 7, 5, 5, 1}, 3, 1, 0)
-        );
+        int[] dbm = new int[]{1, 1, 1, 7, 1, 7, 5, 5, 1};
+        backend.dbm_updateValue(dbm, 3, 1, 0);
+
+        assertArrayEquals(new int[]{1, 1, 1, 1, 1, 1, 5, 5, 1}, dbm);
     }
 
     @Test
     public void testDbmFuture1() {
-        assertArrayEquals(new int[]{1, 1, DBM_INF, 1}, DBMLib.dbm_up(new int[]{1, 1, 1, 1}, 2));
+        int[] dbm = new int[]{1, 1, 1, 1};
+        backend.dbm_up(dbm, 2);
+
+        assertArrayEquals(new int[]{1, 1, DBM_INF, 1}, dbm);
     }
 
     @Test
     public void testDbmFuture2() {
-        assertArrayEquals(new int[]{1, -3, DBM_INF, 1}, DBMLib.dbm_up(new int[]{1, -3, 11, 1}, 2));
+        int[] dbm = new int[]{1, -3, 11, 1};
+        backend.dbm_up(dbm, 2);
+
+        assertArrayEquals(new int[]{1, -3, DBM_INF, 1}, dbm);
     }
 
     @Test
     public void testDbmIntersects1() {
-        assertTrue(DBMLib.dbm_intersection(new int[]{1, 1, 11, 1}, new int[]{1, 1, DBM_INF, 1}, 2));
+        assertTrue(backend.dbm_intersection(new int[]{1, 1, 11, 1}, new int[]{1, 1, DBM_INF, 1}, 2));
     }
 
     @Test
     public void testDbmIntersects2() {
-        assertTrue(DBMLib.dbm_intersection(
+        assertTrue(backend.dbm_intersection(
                 new int[]{1, -9, 1, 1, DBM_INF, 1, DBM_INF, DBM_INF, DBM_INF, DBM_INF, 1, DBM_INF, DBM_INF, DBM_INF, DBM_INF, 1},
                 new int[]{1, 1, 1, 1, 13, 1, 13, 13, DBM_INF, DBM_INF, 1, DBM_INF, DBM_INF, DBM_INF, DBM_INF, 1}, 4)
         );
@@ -172,7 +200,7 @@ public class DBMTest {
 
     @Test
     public void testDbmIntersects3() {
-        assertTrue(DBMLib.dbm_intersection(
+        assertTrue(backend.dbm_intersection(
                 new int[]{1, 1, -29, 1, DBM_INF, 1, DBM_INF, DBM_INF, DBM_INF, DBM_INF, 1, DBM_INF, DBM_INF, DBM_INF, DBM_INF, 1},
                 new int[]{1, 1, 1, 1, 13, 1, 13, 13, DBM_INF, DBM_INF, 1, DBM_INF, DBM_INF, DBM_INF, DBM_INF, 1}, 4)
         );
@@ -180,32 +208,72 @@ public class DBMTest {
 
     @Test
     public void testDbmNotIntersects1() {
-        assertFalse(DBMLib.dbm_intersection(new int[]{1, 1, 11, 1}, new int[]{1, -15, DBM_INF, 1}, 2));
+        assertFalse(backend.dbm_intersection(new int[]{1, 1, 11, 1}, new int[]{1, -15, DBM_INF, 1}, 2));
     }
 
     @Test
     public void testDbmNotIntersects2() {
-        assertFalse(DBMLib.dbm_intersection(
+        assertFalse(backend.dbm_intersection(
                 new int[]{1, 1, 1, 1, 11, 1, 11, 11, DBM_INF, DBM_INF, 1, DBM_INF, DBM_INF, DBM_INF, DBM_INF, 1},
                 new int[]{1, -15, 1, 1, DBM_INF, 1, DBM_INF, DBM_INF, DBM_INF, DBM_INF, 1, DBM_INF, DBM_INF, DBM_INF, DBM_INF, 1}, 4)
         );
     }
 
+    @Test
+    public void testZoneIntervalsOverlap() {
+        Zone upTo5 = new Zone(new int[]{1, 1, 11, 1});
+        Zone below5 = new Zone(new int[]{1, 1, 10, 1});
+        Zone from3To12 = new Zone(new int[]{1, -5, 25, 1});
+        Zone from5 = new Zone(new int[]{1, -9, DBM_INF, 1});
+        Zone from7 = new Zone(new int[]{1, -13, DBM_INF, 1});
+
+        assertTrue(upTo5.intervalsOverlap(from3To12));
+        assertTrue(from3To12.intervalsOverlap(upTo5));
+        assertTrue(upTo5.intervalsOverlap(from5));
+        assertFalse(below5.intervalsOverlap(from5));
+        assertFalse(from7.intervalsOverlap(upTo5));
+    }
+
+    @Test
+    public void testZoneCopiesShareUntilChanged() {
+        Zone original = new Zone(new int[]{1, 1, 11, 1});
+        Zone copy = new Zone(original);
+        Zone copyOfCopy = new Zone(copy);
+
+        assertSame(original.getDbm(), copy.getDbm());
+
+        copy.delay();
+        assertArrayEquals(new int[]{1, 1, 11, 1}, original.getDbm());
+        assertArrayEquals(new int[]{1, 1, 11, 1}, copyOfCopy.getDbm());
+        assertArrayEquals(new int[]{1, 1, DBM_INF, 1}, copy.getDbm());
+
+        original.updateValue(1, 0);
+        assertArrayEquals(new int[]{1, 1, 11, 1}, copyOfCopy.getDbm());
+        assertArrayEquals(new int[]{1, 1, 1, 1}, original.getDbm());
+    }
+
     @Test
     public void testDbmFreeAllDown1() {
-        assertArrayEquals(new int[]{1, 1, 11, 1}, DBMLib.dbm_freeAllDown(new int[]{1, -3, 11, 1}, 2));
+        int[] dbm = new int[]{1, -3, 11, 1};
+        backend.dbm_freeAllDown(dbm, 2);
+
+        assertArrayEquals(new int[]{1, 1, 11, 1}, dbm);
     }
 
     @Test
     public void testDbmFreeAllDown2() {
-        assertArrayEquals(new int[]{1, 1, 11, 1}, DBMLib.dbm_freeAllDown(new int[]{1, 1, 11, 1}, 2));
+        int[] dbm = new int[]{1, 1, 11, 1};
+        backend.dbm_freeAllDown(dbm, 2);
+
+        assertArrayEquals(new int[]{1, 1, 11, 1}, dbm);
     }
 
     @Test
     public void testDbmFreeAllDown3() {
-        assertArrayEquals(new int[]{1, 1, 1, 1, 15, 1, 15, 15, 23, 23, 1, 23, 115, 115, 115, 1},
-                DBMLib.dbm_freeAllDown(new int[]{1, -9, -3, -27, 15, 1, 11, -13, 23, 13, 1, -5, 115, 105, 111, 1}, 4)
-        );
+        int[] dbm = new int[]{1, -9, -3, -27, 15, 1, 11, -13, 23, 13, 1, -5, 115, 105, 111, 1};
+        backend.dbm_freeAllDown(dbm, 4);
+
+        assertArrayEquals(new int[]{1, 1, 1, 1, 15, 1, 15, 15, 23, 23, 1, 23, 115, 115, 115, 1}, dbm);
     }
 
     @Test
@@ -215,12 +283,12 @@ public class DBMTest {
         int[] dbm1 = new int[]{1, 1, 1, DBM_INF, 1, DBM_INF, DBM_INF, DBM_INF, 1};
         int[] dbm2 = new int[]{1, 1, 1, DBM_INF, 1, DBM_INF, DBM_INF, DBM_INF, 1};
 
-        dbm2 = DBMLib.dbm_constrainBound(dbm2, dim, 0, 1, -2, false);
-        dbm2 = DBMLib.dbm_constrainBound(dbm2, dim, 0, 2, -3, false);
-        dbm2 = DBMLib.dbm_constrainBound(dbm2, dim, 1, 0, 4, false);
-        dbm2 = DBMLib.dbm_constrainBound(dbm2, dim, 2, 0, 5, false);
+        backend.dbm_constrainBound(dbm2, dim, 0, 1, -2, false);
+        backend.dbm_constrainBound(dbm2, dim, 0, 2, -3, false);
+        backend.dbm_constrainBound(dbm2, dim, 1, 0, 4, false);
+        backend.dbm_constrainBound(dbm2, dim, 2, 0, 5, false);
 
-        int[][] arr1 = DBMLib.dbm_minus_dbm(dbm1, dbm2, dim);
+        int[][] arr1 = backend.dbm_minus_dbm(dbm1, dbm2, dim);
         Federation fed1 = new Federation(arr1);
 
 //        for (Zone zone : fed1.getZones()) {
@@ -229,12 +297,12 @@ public class DBMTest {
 
         int[] dbm3 = new int[]{1, 1, 1, DBM_INF, 1, DBM_INF, DBM_INF, DBM_INF, 1};
 
-        dbm3 = DBMLib.dbm_constrainBound(dbm3, dim, 0, 1, 0, false);
-        dbm3 = DBMLib.dbm_constrainBound(dbm3, dim, 0, 2, 0, false);
-        dbm3 = DBMLib.dbm_constrainBound(dbm3, dim, 1, 0, 1, false);
-        dbm3 = DBMLib.dbm_constrainBound(dbm3, dim, 2, 0, 1, false);
+        backend.dbm_constrainBound(dbm3, dim, 0, 1, 0, false);
+        backend.dbm_constrainBound(dbm3, dim, 0, 2, 0, false);
+        backend.dbm_constrainBound(dbm3, dim, 1, 0, 1, false);
+        backend.dbm_constrainBound(dbm3, dim, 2, 0, 1, false);
 
-        int[][] arr2 = DBMLib.fed_minus_dbm(arr1, dbm3, dim);
+        int[][] arr2 = backend.fed_minus_dbm(arr1, dbm3, dim);
         Federation fed2 = new Federation(arr2);
 
 //        for (Zone zone : fed2.getZones()) {
@@ -245,6 +313,77 @@ public class DBMTest {
         assertEquals(fed2.size(), 5);
     }
 
+    @Test
+    public void testDbmConstrainN() {
+        int dim = 3;
+        int[] expected = new int[dim * dim];
+        backend.dbm_init(expected, dim);
+        backend.dbm_constrainBound(expected, dim, 1, 0, 5, false);
+        backend.dbm_constrainBound(expected, dim, 0, 2, -2, true);
+        backend.dbm_constrainBound(expected, dim, 1, 2, 1, false);
+
+        int[] dbm = new int[dim * dim];
+        backend.dbm_init(dbm, dim);
+        int[] constraints = new int[]{1, 0, backend.boundbool2raw(5, false), 0, 2, backend.boundbool2raw(-2, true),
+                1, 2, backend.boundbool2raw(1, false)};
+
+        assertTrue(backend.dbm_constrainN(dbm, dim, constraints, constraints.length));
+        assertArrayEquals(expected, dbm);
+    }
+
+    @Test
+    public void testDbmConstrainNEmpty() {
+        int dim = 2;
+        int[] dbm = new int[dim * dim];
+        backend.dbm_init(dbm, dim);
+        int[] constraints = new int[]{1, 0, backend.boundbool2raw(2, false), 0, 1, backend.boundbool2raw(-3, false)};
+
+        assertFalse(backend.dbm_constrainN(dbm, dim, constraints, constraints.length));
+        assertFalse(backend.dbm_constrainN(dbm, dim, constraints, 3));
+    }
+
+    @Test
+    public void testFederationOperations() {
+        int dim = 2;
+
+        // x <= 5 and 2 <= x <= 3
+        int[] dbm1 = new int[dim * dim];
+        backend.dbm_init(dbm1, dim);
+        backend.dbm_constrainBound(dbm1, dim, 1, 0, 5, false);
+
+        int[] dbm2 = new int[dim * dim];
+        backend.dbm_init(dbm2, dim);
+        backend.dbm_constrainBound(dbm2, dim, 1, 0, 3, false);
+        backend.dbm_constrainBound(dbm2, dim, 0, 1, -2, false);
+
+        DbmFederation fed1 = backend.fed_create(new int[][]{dbm1}, dim);
+        DbmFederation fed2 = backend.fed_create(new int[][]{dbm2}, dim);
+
+        assertTrue(fed2.isSubsetEq(fed1));
+        assertFalse(fed1.isSubsetEq(fed2));
+
+        DbmFederation difference = fed1.copy();
+        difference.subtract(fed2);
+        assertEquals(2, difference.size());
+        assertFalse(difference.isSubsetEq(fed2));
+
+        // the difference and the subtracted part make up the whole again
+        difference.union(fed2);
+        assertTrue(fed1.isSubsetEq(difference));
+
+        DbmFederation intersection = fed1.copy();
+        intersection.intersect(fed2);
+        assertTrue(intersection.isSubsetEq(fed2));
+        assertTrue(fed2.isSubsetEq(intersection));
+
+        // the operations above must not have changed their arguments
+        assertEquals(1, fed1.size());
+        assertArrayEquals(dbm2, fed2.getDbms()[0]);
+
+        intersection.subtract(fed1);
+        assertTrue(intersection.isEmpty());
+    }
+
     @Test
     public void testDBMCustom() {
         int[] t1 = new int[]{1, 1, 1, 7, 1, 1, 13, 7, 1};
@@ -0,0 +1,58 @@
+package dbm;
+
+import lib.DbmBackend;
+import lib.DbmBackends;
+import lib.MinGraph;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class MinGraphTest {
+    private static final DbmBackend backend = DbmBackends.create("java");
+
+    // a zone reached by delays, resets and random constraints, or null if it became empty
+    private static int[] randomZone(Random random, int dim) {
+        int[] dbm = new int[dim * dim];
+        backend.dbm_zero(dbm, dim);
+        backend.dbm_up(dbm, dim);
+
+        for (int step = 0; step < 6; step++) {
+            int i = random.nextInt(dim), j = random.nextInt(dim);
+            if (i != j && !backend.dbm_constrainBound(dbm, dim, i, j, random.nextInt(20) - 5, random.nextBoolean()))
+                return null;
+            if (random.nextInt(3) == 0) backend.dbm_updateValue(dbm, dim, 1 + random.nextInt(dim - 1), 0);
+            backend.dbm_up(dbm, dim);
+        }
+        return backend.dbm_isValid(dbm, dim) ? dbm : null;
+    }
+
+    @Test
+    public void testExpandGivesTheZoneBack() {
+        Random random = new Random(42);
+
+        for (int n = 0; n < 500; n++) {
+            int dim = 2 + random.nextInt(7);
+            int[] dbm = randomZone(random, dim);
+            if (dbm == null) continue;
+
+            int[] constraints = MinGraph.reduce(dbm, dim);
+            int[] expanded = new int[dim * dim];
+            MinGraph.expand(constraints, 0, constraints.length / 2, expanded, dim);
+
+            assertArrayEquals(dbm, expanded);
+        }
+    }
+
+    @Test
+    public void testDelayedZeroZoneIsLinear() {
+        int dim = 20;
+        int[] dbm = new int[dim * dim];
+        backend.dbm_zero(dbm, dim);
+        backend.dbm_up(dbm, dim);
+
+        // all clocks are equal: one cycle through the clocks and the lower bound of the group
+        assertEquals(2 * dim, MinGraph.reduce(dbm, dim).length);
+    }
+}
@@ -49,4 +49,12 @@ public class BigRefinementTest {
     public void testComp1RefinesSelf() {
         assertTrue(new Refinement(comp1, comp1Copy).check());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testParallelGivesSameVerdicts() {
+        assertFalse(new Refinement(ref1, comp1).checkParallel(4));
+        assertFalse(new Refinement(comp1, ref1).checkParallel(4));
+        assertTrue(new Refinement(ref1, ref1Copy).checkParallel(4));
+        assertTrue(new Refinement(comp1, comp1Copy).checkParallel(4));
+    }
+}
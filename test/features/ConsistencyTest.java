@@ -1,11 +1,15 @@
 package features;
 
 import logic.*;
-import models.Automaton;
+import models.*;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import parser.XMLParser;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import static junit.framework.TestCase.assertTrue;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertEquals;
@@ -75,6 +79,26 @@ public class ConsistencyTest {
         assertTrue(ts.isLeastConsistent());
     }
 
+    @Test
+    public void testComposedConsistencyGivesSameVerdicts(){
+        System.setProperty(TransitionSystem.COMPOSED_CONSISTENCY_PROPERTY, "true");
+        try {
+            assertFalse(new Composition(new TransitionSystem[]{G1, G5}).isLeastConsistent());
+            assertTrue(new Composition(new TransitionSystem[]{G1, G8}).isLeastConsistent());
+        } finally {
+            System.clearProperty(TransitionSystem.COMPOSED_CONSISTENCY_PROPERTY);
+        }
+    }
+
+    @Test
+    public void testVerdictIsSharedByCopies(){
+        TransitionSystem copy = new SimpleTransitionSystem(new Automaton(automata[6]));
+
+        assertFalse(new SimpleTransitionSystem(automata[6]).isLeastConsistent());
+        assertFalse(copy.isLeastConsistent());
+        assertEquals(automata[6].hashCode(), new Automaton(automata[6]).hashCode());
+    }
+
     @Test
     public void testG6(){
         TransitionSystem ts = new SimpleTransitionSystem(automata[5]);
@@ -194,4 +218,29 @@ public class ConsistencyTest {
         assertFalse(ref.check());
         assertEquals("Automaton G9 is non-deterministic.\n" + "Automata G3, G4, G5, G7, G10, G12 are inconsistent.\n", ref.getErrMsg());
     }
+
+    // a chain of locations that must be left by an output, the last one has no way out
+    private static TransitionSystem chain(int length) {
+        Clock x = new Clock("x");
+        Channel o = new Channel("o");
+
+        List<Location> locations = new ArrayList<>();
+        List<Edge> edges = new ArrayList<>();
+        for (int i = 0; i < length; i++) {
+            List<Guard> inv = new ArrayList<>(Collections.singletonList(new Guard(x, 5, false, false)));
+            locations.add(new Location("L" + i, inv, i == 0, false, false, false));
+            if (i > 0)
+                edges.add(new Edge(locations.get(i - 1), locations.get(i), o, false, new ArrayList<>(), new Update[]{new Update(x, 0)}));
+        }
+
+        return new SimpleTransitionSystem(new Automaton("Chain", locations, edges, new ArrayList<>(Collections.singletonList(x)), false));
+    }
+
+    @Test
+    public void testDeepChainDoesNotOverflowTheStack() {
+        TransitionSystem ts = chain(20000);
+
+        assertFalse(ts.isLeastConsistent());
+        assertFalse(ts.isFullyConsistent());
+    }
 }
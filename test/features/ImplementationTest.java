@@ -166,4 +166,19 @@ public class ImplementationTest {
         
         assertTrue(ts.isImplementation());
     }
+
+    private static TransitionSystem byName(String name) {
+        for (Automaton automaton : automata)
+            if (automaton.getName().equals(name)) return new SimpleTransitionSystem(automaton);
+        return null;
+    }
+
+    @Test
+    public void testOnlyFailingComponentsAreReported(){
+        TransitionSystem ts = new Composition(new TransitionSystem[]{byName("G8"), byName("G15")});
+
+        assertFalse(ts.isImplementation());
+        assertTrue(ts.getLastErr().contains("Automaton G15 is not output urgent.\n"));
+        assertFalse(ts.getLastErr().contains("G8"));
+    }
 }
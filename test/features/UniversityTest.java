@@ -6,6 +6,7 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import parser.JSONParser;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -249,4 +250,27 @@ public class UniversityTest {
     public void testAdm2RefinesHalf1AndHalf2() {
         assertTrue(new Refinement(adm2, new Conjunction(new TransitionSystem[]{half1, half2})).check());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testLocalBoundsGiveSameVerdictsWithFewerPairs() {
+        TransitionSystem comp = new Composition(new TransitionSystem[]{adm, machine, researcher});
+
+        Refinement globalRef;
+        boolean globalVerdict, globalFailing;
+        System.setProperty(Refinement.EXTRAPOLATION_PROPERTY, "max");
+        try {
+            globalRef = new Refinement(comp, spec);
+            globalVerdict = globalRef.check();
+            globalFailing = new Refinement(adm, machine).check();
+        } finally {
+            System.clearProperty(Refinement.EXTRAPOLATION_PROPERTY);
+        }
+
+        Refinement localRef = new Refinement(comp, spec);
+        assertTrue(globalVerdict);
+        assertEquals(globalVerdict, localRef.check());
+        assertEquals(globalFailing, new Refinement(adm, machine).check());
+        // the constants of the components differ between their locations
+        assertTrue(localRef.getPassedWaitingSize() < globalRef.getPassedWaitingSize());
+    }
+}
@@ -0,0 +1,93 @@
+package logic;
+
+import models.*;
+import org.junit.Test;
+import parser.JSONParser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MoveCacheTest {
+
+    private static SymbolicLocation location(String name) {
+        return new SimpleLocation(new Location(name, new ArrayList<>(), false, false, false, false));
+    }
+
+    @Test
+    public void testHitsAndMisses() {
+        MoveCache cache = new MoveCache(10);
+        SymbolicLocation loc = location("L0");
+        Channel channel = new Channel("a");
+        List<Move> moves = Collections.singletonList(new Move(loc, loc, new ArrayList<>()));
+
+        List<Move> first = cache.get(loc, channel, () -> moves);
+        List<Move> second = cache.get(loc, channel, () -> { throw new AssertionError("computed twice"); });
+
+        assertSame(first, second);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        MoveCache cache = new MoveCache(2);
+        SymbolicLocation l0 = location("L0"), l1 = location("L1"), l2 = location("L2");
+        Channel channel = new Channel("a");
+
+        cache.get(l0, channel, ArrayList::new);
+        cache.get(l1, channel, ArrayList::new);
+        cache.get(l0, channel, ArrayList::new);
+        cache.get(l2, channel, ArrayList::new);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+
+        // l1 was the least recently used one, l0 is still cached
+        cache.get(l0, channel, ArrayList::new);
+        assertEquals(2, cache.getHits());
+        cache.get(l1, channel, ArrayList::new);
+        assertEquals(4, cache.getMisses());
+    }
+
+    @Test
+    public void testDisabledCacheAlwaysComputes() {
+        MoveCache cache = new MoveCache(0);
+        SymbolicLocation loc = location("L0");
+        Channel channel = new Channel("a");
+
+        cache.get(loc, channel, ArrayList::new);
+        cache.get(loc, channel, ArrayList::new);
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void testCompositionReusesMoves() {
+        String base = "./samples/json/EcdarUniversity/";
+        String[] components = new String[]{"GlobalDeclarations.json",
+                "Components/Administration.json",
+                "Components/Machine.json",
+                "Components/Researcher.json"};
+        Automaton[] machines = JSONParser.parse(base, components, true);
+
+        Composition comp = new Composition(new TransitionSystem[]{new SimpleTransitionSystem(machines[0]),
+                new SimpleTransitionSystem(machines[1]), new SimpleTransitionSystem(machines[2])});
+        State init = comp.getInitialState();
+
+        List<Integer> sizes = new ArrayList<>();
+        for (Channel action : comp.getActions())
+            sizes.add(comp.getNextTransitions(init, action).size());
+        long misses = comp.getMoveCache().getMisses();
+
+        for (Channel action : comp.getActions())
+            assertEquals(sizes.remove(0), Integer.valueOf(comp.getNextTransitions(init, action).size()));
+
+        assertEquals(misses, comp.getMoveCache().getMisses());
+        assertEquals(comp.getActions().size(), comp.getMoveCache().getHits());
+    }
+}
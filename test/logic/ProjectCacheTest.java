@@ -0,0 +1,132 @@
+package logic;
+
+import models.Automaton;
+import parser.ProjectSnapshot;
+import parser.SymbolTable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class ProjectCacheTest {
+    private Path project;
+
+    @Before
+    public void setUp() throws IOException {
+        Path source = Paths.get("./samples/json/EcdarUniversity");
+        project = Files.createTempDirectory("project");
+        Files.createDirectory(project.resolve("Components"));
+        Files.copy(source.resolve("GlobalDeclarations.json"), project.resolve("GlobalDeclarations.json"));
+        for (String name : new String[]{"Adm2.json", "HalfAdm1.json", "HalfAdm2.json"}) {
+            Files.copy(source.resolve("Components").resolve(name), project.resolve("Components").resolve(name));
+        }
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(project)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    private Automaton find(List<Automaton> automata, String name) {
+        return automata.stream().filter(a -> a.getName().equals(name)).findFirst().orElse(null);
+    }
+
+    @Test
+    public void testUnchangedProjectIsNotParsedAgain() {
+        ProjectCache cache = new ProjectCache();
+        List<Automaton> first = cache.getAutomata(project.toString(), true);
+        List<Automaton> second = cache.getAutomata(project.toString(), true);
+
+        assertEquals(3, first.size());
+        assertEquals(first, second);
+        for (int i = 0; i < first.size(); i++)
+            assertSame(first.get(i), second.get(i));
+    }
+
+    @Test
+    public void testOnlyChangedComponentIsParsedAgain() {
+        ProjectCache cache = new ProjectCache();
+        List<Automaton> first = cache.getAutomata(project.toString(), true);
+
+        File changed = project.resolve("Components").resolve("Adm2.json").toFile();
+        assertTrue(changed.setLastModified(changed.lastModified() - 10000));
+        List<Automaton> second = cache.getAutomata(project.toString(), true);
+
+        assertFalse(find(first, "Adm2") == find(second, "Adm2"));
+        assertSame(find(first, "HalfAdm1"), find(second, "HalfAdm1"));
+        assertSame(find(first, "HalfAdm2"), find(second, "HalfAdm2"));
+    }
+
+    @Test
+    public void testRemovedComponentIsDropped() throws IOException {
+        ProjectCache cache = new ProjectCache();
+        cache.getAutomata(project.toString(), true);
+
+        Files.delete(project.resolve("Components").resolve("HalfAdm2.json"));
+        List<Automaton> automata = cache.getAutomata(project.toString(), true);
+
+        assertEquals(2, automata.size());
+        assertNull(find(automata, "HalfAdm2"));
+    }
+
+    @Test
+    public void testWarmStartReadsSnapshot() {
+        List<Automaton> cold = new ProjectCache(true).getAutomata(project.toString(), true);
+        File snapshot = project.resolve(ProjectSnapshot.FILE_NAME).toFile();
+        assertEquals(3, ProjectSnapshot.read(snapshot, new SymbolTable()).size());
+
+        List<Automaton> warm = new ProjectCache(true).getAutomata(project.toString(), true);
+
+        assertEquals(cold.size(), warm.size());
+        for (Automaton automaton : cold) {
+            Automaton loaded = find(warm, automaton.getName());
+            assertEquals(automaton, loaded);
+            assertEquals(automaton.getMaxBoundsForAllClocks(), loaded.getMaxBoundsForAllClocks());
+        }
+        assertEquals(new SimpleTransitionSystem(find(cold, "Adm2")).isLeastConsistent(),
+                new SimpleTransitionSystem(find(warm, "Adm2")).isLeastConsistent());
+    }
+
+    @Test
+    public void testChangedComponentIsNotTakenFromSnapshot() throws IOException {
+        new ProjectCache(true).getAutomata(project.toString(), true);
+
+        Path changed = project.resolve("Components").resolve("Adm2.json");
+        Files.write(changed, new String(Files.readAllBytes(changed), "UTF-8").replace("\"Adm2\"", "\"Adm3\"").getBytes("UTF-8"));
+        List<Automaton> automata = new ProjectCache(true).getAutomata(project.toString(), true);
+
+        assertNull(find(automata, "Adm2"));
+        assertNotNull(find(automata, "Adm3"));
+        assertEquals(3, automata.size());
+    }
+
+    @Test
+    public void testBrokenSnapshotIsIgnored() throws IOException {
+        Files.write(project.resolve(ProjectSnapshot.FILE_NAME), new byte[]{1, 2, 3});
+
+        assertEquals(3, new ProjectCache(true).getAutomata(project.toString(), true).size());
+    }
+
+    @Test
+    public void testMalformedComponentFailsWithItsName() throws IOException {
+        Path broken = project.resolve("Components").resolve("HalfAdm1.json");
+        Files.write(broken, new String(Files.readAllBytes(broken), "UTF-8").replaceFirst("\"guard\": \"\"", "\"guard\": \"x <= &&\"").getBytes("UTF-8"));
+
+        try {
+            new ProjectCache().getAutomata(project.toString(), true);
+            fail("A malformed guard must not be skipped");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("HalfAdm1.json"));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package logic;
+
+import lib.DbmBackend;
+import lib.DbmBackends;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ZoneArenaTest {
+    private static final int DBM_INF = Integer.MAX_VALUE - 1;
+
+    @Test
+    public void testInclusionAgainstStoredZones() {
+        ZoneArena arena = new ZoneArena();
+        int upTo5 = arena.store(new int[]{1, 1, 11, 1});
+        int from3 = arena.store(new int[]{1, -5, DBM_INF, 1});
+
+        assertTrue(arena.isSubset(new int[]{1, 1, 11, 1}, upTo5));
+        assertTrue(arena.isSubset(new int[]{1, -3, 7, 1}, upTo5));
+        assertFalse(arena.isSubset(new int[]{1, 1, 11, 1}, from3));
+
+        assertTrue(arena.isSuperset(new int[]{1, 1, DBM_INF, 1}, upTo5));
+        assertFalse(arena.isSuperset(new int[]{1, 1, 7, 1}, upTo5));
+    }
+
+    @Test
+    public void testZonesStayIntactAcrossSegments() {
+        ZoneArena arena = new ZoneArena();
+        int[] handles = new int[100000];
+
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = arena.store(new int[]{1, -2 * i + 1, 2 * i + 1, 1});
+        }
+
+        for (int i = 0; i < handles.length; i += 997) {
+            assertTrue(arena.isSubset(new int[]{1, -2 * i + 1, 2 * i + 1, 1}, handles[i]));
+            assertTrue(arena.isSuperset(new int[]{1, -2 * i + 1, 2 * i + 1, 1}, handles[i]));
+            assertFalse(arena.isSubset(new int[]{1, -2 * i + 1, 2 * i + 3, 1}, handles[i]));
+        }
+        assertTrue(arena.getAllocatedBytes() >= 4L * 4 * handles.length);
+
+        arena.release();
+        assertEquals(0, arena.getAllocatedBytes());
+    }
+
+    @Test
+    public void testHandlesRemoveIf() {
+        ZoneArena.Handles handles = new ZoneArena.Handles();
+        for (int i = 0; i < 10; i++) handles.add(i);
+
+        handles.removeIf(h -> h % 3 == 0);
+
+        assertEquals(6, handles.size());
+        assertEquals(1, handles.get(0));
+        assertEquals(8, handles.get(5));
+    }
+
+    @Test
+    public void testCompressedZonesGiveSameInclusion() {
+        DbmBackend backend = DbmBackends.create("java");
+        Random random = new Random(7);
+        int dim = 6;
+
+        List<int[]> zones = new ArrayList<>();
+        while (zones.size() < 60) {
+            int[] dbm = new int[dim * dim];
+            backend.dbm_init(dbm, dim);
+            for (int k = 0; k < 4; k++) {
+                int i = random.nextInt(dim), j = random.nextInt(dim);
+                if (i != j) backend.dbm_constrainBound(dbm, dim, i, j, random.nextInt(12) - 2, random.nextBoolean());
+            }
+            if (backend.dbm_isValid(dbm, dim)) zones.add(dbm);
+        }
+
+        ZoneArena arena = new ZoneArena();
+        int[] handles = zones.stream().mapToInt(arena::store).toArray();
+        assertTrue(arena.getAllocatedBytes() > 0);
+
+        for (int[] zone : zones) {
+            for (int k = 0; k < zones.size(); k++) {
+                assertEquals(backend.dbm_isSubsetEq(zone, zones.get(k), dim), arena.isSubset(zone, handles[k]));
+                assertEquals(backend.dbm_isSubsetEq(zones.get(k), zone, dim), arena.isSuperset(zone, handles[k]));
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package models;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class AutomatonBoundsTest {
+
+    @Test
+    public void testBoundsArePropagatedUntilReset() {
+        Clock x = new Clock("x");
+        Clock y = new Clock("y");
+        Channel o = new Channel("o");
+
+        // L0 -> L1 resets x, L1 -> L2 has x >= 4, L2 has the invariant y <= 9
+        Location l0 = new Location("L0", new ArrayList<>(), true, false, false, false);
+        Location l1 = new Location("L1", new ArrayList<>(), false, false, false, false);
+        Location l2 = new Location("L2", new ArrayList<>(Collections.singletonList(new Guard(y, 9, false, false))), false, false, false, false);
+
+        List<Edge> edges = new ArrayList<>();
+        edges.add(new Edge(l0, l1, o, false, new ArrayList<>(), new Update[]{new Update(x, 0)}));
+        edges.add(new Edge(l1, l2, o, false, new ArrayList<>(Collections.singletonList(new Guard(x, 4, true, false))), new Update[]{}));
+
+        Automaton automaton = new Automaton("A", Arrays.asList(l0, l1, l2), edges, Arrays.asList(x, y), false);
+
+        assertArrayEquals(new int[]{4, 9}, automaton.getLocalMaxBounds(l1));
+        assertArrayEquals(new int[]{0, 9}, automaton.getLocalMaxBounds(l0));
+        assertArrayEquals(new int[]{0, 9}, automaton.getLocalMaxBounds(l2));
+        assertNull(automaton.getLocalMaxBounds(new Location("L3", new ArrayList<>(), false, false, false, false)));
+    }
+}
@@ -0,0 +1,56 @@
+package models;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+public class ClockIndexTest {
+
+    @Test
+    public void testIndicesFollowTheList() {
+        Clock x = new Clock("x");
+        Clock y = new Clock("y");
+        ClockIndex index = new ClockIndex(Arrays.asList(y, x));
+
+        assertEquals(1, index.indexOf(y));
+        assertEquals(2, index.indexOf(x));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void testClocksWithTheSameNameAreDifferent() {
+        Clock x = new Clock("x");
+        Clock xCopy = new Clock(x);
+        ClockIndex index = new ClockIndex(Arrays.asList(x, xCopy));
+
+        assertEquals(1, index.indexOf(x));
+        assertEquals(2, index.indexOf(xCopy));
+    }
+
+    @Test
+    public void testUnknownClockIsReferenceClock() {
+        ClockIndex index = new ClockIndex(Arrays.asList(new Clock("x")));
+
+        assertEquals(0, index.indexOf(new Clock("x")));
+    }
+
+    @Test
+    public void testClocksCreatedFarApart() {
+        Clock x = new Clock("x");
+        for (int i = 0; i < 10000; i++) new Clock("unused");
+        Clock y = new Clock("y");
+        ClockIndex index = new ClockIndex(Arrays.asList(y, x));
+
+        assertEquals(1, index.indexOf(y));
+        assertEquals(2, index.indexOf(x));
+        assertEquals(0, index.indexOf(new Clock("z")));
+    }
+
+    @Test
+    public void testChannelsWithTheSameNameAreEqual() {
+        assertEquals(new Channel("coin").getId(), new Channel("coin").getId());
+        assertEquals(new Channel("coin"), new Channel("coin"));
+    }
+}
@@ -38,4 +38,16 @@ public class GuardTest {
         assert g.getLowerBound() == 0;
         assert g.getUpperBound() == 5;
     }
+
+    @Test
+    public void testNegateDoesNotChangeGuard() {
+        Guard g = new Guard(x, 5, false, false);
+        Guard negated = g.negate();
+
+        assert !g.isStrict();
+        assert negated.isStrict();
+        assert negated.getLowerBound() == 5;
+        assert negated.getUpperBound() == Integer.MAX_VALUE;
+        assert negated.negate().equals(g);
+    }
 }
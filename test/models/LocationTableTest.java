@@ -0,0 +1,59 @@
+package models;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class LocationTableTest {
+
+    private static SymbolicLocation location(String name) {
+        return new SimpleLocation(new Location(name, new ArrayList<>(), false, false, false, false));
+    }
+
+    @Test
+    public void testTuplesAreInternedOnce() {
+        LocationTable table = new LocationTable();
+        SymbolicLocation l0 = location("L0"), l1 = location("L1");
+
+        ComplexLocation first = table.intern(Arrays.asList(l0, l1));
+        ComplexLocation second = table.intern(new ArrayList<>(Arrays.asList(l0, l1)));
+        ComplexLocation other = table.intern(Arrays.asList(l1, l0));
+
+        assertSame(first, second);
+        assertNotEquals(first, other);
+        assertEquals(0, first.getId());
+        assertEquals(1, other.getId());
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    public void testEqualToLocationsOutsideTheTable() {
+        LocationTable table = new LocationTable();
+        SymbolicLocation l0 = location("L0"), l1 = location("L1");
+
+        ComplexLocation interned = table.intern(Arrays.asList(l0, l1));
+        ComplexLocation created = new ComplexLocation(Arrays.asList(l0, l1));
+
+        assertEquals(interned, created);
+        assertEquals(created, interned);
+        assertEquals(interned.hashCode(), created.hashCode());
+        assertEquals(interned, interned.withoutInvariants());
+        assertEquals(-1, created.getId());
+    }
+
+    @Test
+    public void testEqualLocationsHaveEqualHashes() {
+        Clock x = new Clock("x");
+        Guard guard = new Guard(x, 5, false, false);
+
+        Location loc1 = new Location("L0", new ArrayList<>(Collections.singletonList(guard)), true, false, false, false);
+        Location loc2 = new Location("L0", new ArrayList<>(Collections.singletonList(new Guard(new Clock("x"), 5, false, false))), true, false, false, false);
+
+        assertEquals(loc1, loc2);
+        assertEquals(loc1.hashCode(), loc2.hashCode());
+    }
+}
@@ -0,0 +1,68 @@
+package parser;
+
+import models.Clock;
+import models.Guard;
+import models.Update;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ExpressionParserTest {
+    private final Clock x = new Clock("x"), y = new Clock("y");
+
+    private Map<String, Clock> clocks() {
+        Map<String, Clock> clocks = new HashMap<>();
+        clocks.put("x", x);
+        clocks.put("y", y);
+        return clocks;
+    }
+
+    @Test
+    public void testClockDeclarations() {
+        List<Clock> clocks = ExpressionParser.parseClocks("clock x, y;\n// clock z;\nint i = 0;\nclock u;");
+
+        assertEquals(Arrays.asList(new Clock("x"), new Clock("y"), new Clock("u")), clocks);
+    }
+
+    @Test
+    public void testGuards() {
+        List<Guard> guards = ExpressionParser.parseGuards("x >= 3 && x<=5&&y > 4 && y == 2 && x<7", clocks());
+
+        assertEquals(Arrays.asList(new Guard(x, 3, true, false), new Guard(x, 5, false, false),
+                new Guard(y, 4, true, true), new Guard(y, 2), new Guard(x, 7, false, true)), guards);
+    }
+
+    @Test
+    public void testUpdates() {
+        Update[] updates = ExpressionParser.parseUpdates("x = 0, y=3", clocks());
+
+        assertArrayEquals(new Update[]{new Update(x, 0), new Update(y, 3)}, updates);
+    }
+
+    @Test
+    public void testUnknownClockIsRejected() {
+        try {
+            ExpressionParser.parseGuards("z <= 5", clocks());
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("Cannot parse \"z <= 5\": unknown clock z", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testMalformedGuardIsRejected() {
+        try {
+            ExpressionParser.parseGuards("x <= 5 y", clocks());
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("Cannot parse \"x <= 5 y\": unexpected y", e.getMessage());
+        }
+    }
+}
@@ -5,12 +5,14 @@ import models.Automaton;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.Assert.*;
 
 public class QueryParserTest {
     private static TransitionSystem adm, machine, researcher, spec, machine3, adm2, half1, half2;
+    private static Controller controller;
 
     @BeforeClass
     public static void setUpBeforeClass() {
@@ -35,25 +37,25 @@ public class QueryParserTest {
         half1 = new SimpleTransitionSystem(machines[6]);
         half2 = new SimpleTransitionSystem(machines[7]);
 
-        Controller.parseComponents(base, true);
+        controller = Controller.parseComponents(base, true);
     }
 
     @Test
     public void testCompositionOfThree() {
         TransitionSystem ts1 = new Composition(new TransitionSystem[]{adm, machine, researcher});
-        TransitionSystem ts2 = Controller.runQuery("(Administration||Machine||Researcher)");
+        TransitionSystem ts2 = controller.runQuery("(Administration||Machine||Researcher)");
         assertEquals(ts1, ts2);
     }
 
     @Test
     public void testCompositionOfOne() {
-        TransitionSystem ts = Controller.runQuery("(Spec)");
+        TransitionSystem ts = controller.runQuery("(Spec)");
         assertEquals(spec, ts);
     }
 
     @Test
     public void testCompositionOfOneMultiBrackets() {
-        TransitionSystem ts = Controller.runQuery("((Spec))");
+        TransitionSystem ts = controller.runQuery("((Spec))");
         assertEquals(spec, ts);
     }
 
@@ -62,14 +64,14 @@ public class QueryParserTest {
         TransitionSystem transitionSystem1 = new Composition(new TransitionSystem[]{adm, machine});
 
         TransitionSystem ts1 = new Composition(new TransitionSystem[]{transitionSystem1, researcher});
-        TransitionSystem ts2 = Controller.runQuery("((Administration||Machine)||Researcher)");
+        TransitionSystem ts2 = controller.runQuery("((Administration||Machine)||Researcher)");
         assertEquals(ts1, ts2);
     }
 
     @Test
     public void testConjunctionOfThree() {
         TransitionSystem ts1 = new Conjunction(new TransitionSystem[]{adm, machine, researcher});
-        TransitionSystem ts2 = Controller.runQuery("(Administration&&Machine&&Researcher)");
+        TransitionSystem ts2 = controller.runQuery("(Administration&&Machine&&Researcher)");
         assertEquals(ts1, ts2);
     }
 
@@ -78,7 +80,7 @@ public class QueryParserTest {
         TransitionSystem transitionSystem1 = new Conjunction(new TransitionSystem[]{adm, machine});
 
         TransitionSystem ts1 = new Composition(new TransitionSystem[]{transitionSystem1, researcher});
-        TransitionSystem ts2 = Controller.runQuery("((Administration&&Machine)||Researcher)");
+        TransitionSystem ts2 = controller.runQuery("((Administration&&Machine)||Researcher)");
         assertEquals(ts1, ts2);
     }
 
@@ -87,7 +89,7 @@ public class QueryParserTest {
         TransitionSystem trs1 = new Conjunction(new TransitionSystem[]{adm, machine, machine});
 
         TransitionSystem ts1 = new Composition(new TransitionSystem[]{trs1, researcher, half1});
-        TransitionSystem ts2 = Controller.runQuery("((Administration&&Machine&&Machine)||Researcher||HalfAdm1)");
+        TransitionSystem ts2 = controller.runQuery("((Administration&&Machine&&Machine)||Researcher||HalfAdm1)");
         assertEquals(ts1, ts2);
     }
 
@@ -96,7 +98,7 @@ public class QueryParserTest {
         TransitionSystem trs1 = new Conjunction(new TransitionSystem[]{machine, researcher});
 
         TransitionSystem ts1 = new Composition(new TransitionSystem[]{researcher, machine, trs1, spec});
-        TransitionSystem ts2 = Controller.runQuery("(Researcher||Machine||(Machine&&Researcher)||Spec)");
+        TransitionSystem ts2 = controller.runQuery("(Researcher||Machine||(Machine&&Researcher)||Spec)");
         assertEquals(ts1, ts2);
     }
 
@@ -106,7 +108,7 @@ public class QueryParserTest {
         TransitionSystem trs2 = new Conjunction(new TransitionSystem[]{machine, researcher});
 
         TransitionSystem ts1 = new Composition(new TransitionSystem[]{trs1, trs2});
-        TransitionSystem ts2 = Controller.runQuery("((Researcher&&Machine)||(Machine&&Researcher))");
+        TransitionSystem ts2 = controller.runQuery("((Researcher&&Machine)||(Machine&&Researcher))");
         assertEquals(ts1, ts2);
     }
 
@@ -117,14 +119,14 @@ public class QueryParserTest {
         TransitionSystem trs3 = new Conjunction(new TransitionSystem[]{machine, machine, machine});
 
         TransitionSystem ts1 = new Composition(new TransitionSystem[]{researcher, trs3, trs2});
-        TransitionSystem ts2 = Controller.runQuery("(Researcher||(Machine&&Machine&&Machine)||(Spec&&(Machine||Researcher)&&Machine))");
+        TransitionSystem ts2 = controller.runQuery("(Researcher||(Machine&&Machine&&Machine)||(Spec&&(Machine||Researcher)&&Machine))");
         assertEquals(ts1, ts2);
     }
 
     @Test
     public void Half1ConjHalf2() {
         TransitionSystem ts1 = new Conjunction(new TransitionSystem[]{half1, half2});
-        TransitionSystem ts2 = Controller.runQuery("(HalfAdm1&&HalfAdm2)");
+        TransitionSystem ts2 = controller.runQuery("(HalfAdm1&&HalfAdm2)");
         assertEquals(ts1, ts2);
     }
 
@@ -401,6 +403,16 @@ public class QueryParserTest {
         }
     }
 
+    @Test
+    public void testSeveralQueriesKeepOrder() {
+        try {
+            List<String> result = Controller.handleRequest("-json ./samples/json/EcdarUniversity refinement:(Administration||Machine||Researcher)<=Spec consistency:HalfAdm1 determinism:HalfAdm2 refinement:Spec<=Spec", false);
+            assertEquals(Arrays.asList("true", "\n", "true", "true", "false", "\n", "Duplicate process instance: Spec.\n"), result);
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
     @Test
     public void testDelayRefZ3RefinesZ4() {
         try {